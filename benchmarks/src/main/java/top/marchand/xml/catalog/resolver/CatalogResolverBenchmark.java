@@ -0,0 +1,93 @@
+package top.marchand.xml.catalog.resolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.catalog.CatalogFeatures;
+import javax.xml.catalog.CatalogManager;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves 256 URIs, 3 out of 4 being {@code dependency:/} URIs that match an entry, others
+ * being http URIs, with a generated catalog of 100 to 10,000 {@code rewriteURI} entries,
+ * with {@link CatalogResolver} and with the JDK's {@code javax.xml.catalog} resolver.
+ * Requires Java 9 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogResolverBenchmark {
+    private static final int LOOKUPS = 256;
+    private static final String BASE = "file:/work/project/src/main/xsl/main.xsl";
+
+    @Param({"100", "1000", "10000"})
+    public int entries;
+
+    private File catalogFile;
+    private CatalogResolver trie;
+    private javax.xml.catalog.CatalogResolver jdk;
+    private String[] uris;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\">\n");
+        for (int i = 0; i < entries; i++) {
+            String group = "com.acme.group" + (i % 100);
+            String jar = "/home/builder/.m2/repository/" + group.replace('.', '/') + "/lib-" + i + "/1.0.0/lib-" + i + "-1.0.0.jar";
+            sb.append("  <rewriteURI uriStartString=\"dependency:/").append(group).append("+lib-").append(i)
+                    .append("/\" rewritePrefix=\"jar:file:").append(jar).append("!/\"/>\n");
+        }
+        sb.append("</catalog>\n");
+        catalogFile = File.createTempFile("catalog", ".xml");
+        Files.write(catalogFile.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        trie = new CatalogResolver(catalogFile);
+        jdk = CatalogManager.catalogResolver(
+                CatalogFeatures.builder().with(CatalogFeatures.Feature.RESOLVE, "continue").build(),
+                catalogFile.toURI());
+        uris = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int n = (i * 7919) % entries;
+            uris[i] = i % 4 == 3
+                    ? "https://www.acme.org/xsl/lib-" + n + "/main.xsl"
+                    : "dependency:/com.acme.group" + (n % 100) + "+lib-" + n + "/xsl/common/functions.xsl";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalogFile.delete();
+    }
+
+    @Benchmark
+    public void trie(Blackhole bh) {
+        for (String uri : uris) {
+            bh.consume(trie.resolve(uri, BASE));
+        }
+    }
+
+    @Benchmark
+    public void jdk(Blackhole bh) {
+        for (String uri : uris) {
+            bh.consume(jdk.resolve(uri, BASE));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package top.marchand.xml.maven.catalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Matches 256 dependencies against 10 to 10,000 {@code includes} / {@code excludes} rules.
+ * <ul>
+ *   <li>{@code listContains} is the former lookup : 3 {@code List.contains} calls per dependency,
+ *   without glob support ;</li>
+ *   <li>{@code regexScan} evaluates every rule as a regular expression, the naive way to support globs ;</li>
+ *   <li>{@code matcher} is the compiled {@link ArtifactMatcher}.</li>
+ * </ul>
+ * A quarter of the rules are globs, ignored by {@code listContains}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactMatcherBenchmark {
+    private static final int DEPENDENCIES = 256;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int rules;
+
+    private List<String> ruleList;
+    private List<Pattern> regexes;
+    private ArtifactMatcher matcher;
+    private String[] groupIds;
+    private String[] artifactIds;
+
+    @Setup
+    public void setUp() {
+        ruleList = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            switch (i % 4) {
+                case 0:
+                    ruleList.add("org.group" + i + ":artifact" + i);
+                    break;
+                case 1:
+                    ruleList.add("*:artifact" + i);
+                    break;
+                case 2:
+                    ruleList.add("org.group" + i + ":*");
+                    break;
+                default:
+                    ruleList.add("com.acme" + i + ".*:*-schemas");
+            }
+        }
+        regexes = new ArrayList<>(rules);
+        for (String rule : ruleList) {
+            regexes.add(Pattern.compile(rule.replace(".", "\\.").replace("*", "[^:]*")));
+        }
+        matcher = ArtifactMatcher.compile(ruleList);
+        groupIds = new String[DEPENDENCIES];
+        artifactIds = new String[DEPENDENCIES];
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            // one out of two dependencies matches a rule
+            int n = i % 2 == 0 ? (i * 7) % rules : rules + i;
+            groupIds[i] = (n % 4 == 3 ? "com.acme" + n + ".xml" : "org.group" + n);
+            artifactIds[i] = (n % 4 == 3 ? "common-schemas" : "artifact" + n);
+        }
+    }
+
+    @Benchmark
+    public void listContains(Blackhole bh) {
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            String groupId = groupIds[i];
+            String artifactId = artifactIds[i];
+            bh.consume(ruleList.contains(groupId + ":" + artifactId)
+                    || ruleList.contains("*:" + artifactId)
+                    || ruleList.contains(groupId + ":*"));
+        }
+    }
+
+    @Benchmark
+    public void regexScan(Blackhole bh) {
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            String coordinates = groupIds[i] + ":" + artifactIds[i];
+            boolean found = false;
+            for (Pattern regex : regexes) {
+                if (regex.matcher(coordinates).matches()) {
+                    found = true;
+                    break;
+                }
+            }
+            bh.consume(found);
+        }
+    }
+
+    @Benchmark
+    public void matcher(Blackhole bh) {
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            bh.consume(matcher.matches(groupIds[i], artifactIds[i]));
+        }
+    }
+}
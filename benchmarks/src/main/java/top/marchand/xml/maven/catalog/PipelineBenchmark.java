@@ -0,0 +1,105 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The catalog generation pipeline, on synthetic dependency graphs of 10, 1,000 and 50,000 nodes
+ * (see {@link PipelineFixtures}).
+ * <ul>
+ *   <li>{@code execute} is a whole mojo execution : classpath indexing, traversal,
+ *   {@code processDependency}, {@code constructArtifactPath} and {@code writeCatalog}. Poms of reactor
+ *   modules are read from the JVM-wide cache after the first invocation, as in a multi-module build ;</li>
+ *   <li>{@code shouldProcessDependency}, {@code buildPattern} and {@code loadArtifactFromDir} are measured
+ *   alone, on all nodes, or on all reactor modules with an empty pom cache.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int nodes;
+
+    /**
+     * Only used by {@link #execute()}
+     */
+    @Param({"false", "true"})
+    public boolean stream;
+
+    private File basedir;
+    private PipelineFixtures fixtures;
+    private Catalog catalog;
+    private ExecutionContext ctx;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        basedir = Files.createTempDirectory("pipeline").toFile();
+        fixtures = new PipelineFixtures(basedir, nodes);
+        catalog = fixtures.catalog();
+        catalog.excludes = Arrays.asList("com.acme.group7:*", "*:lib-42", "org.apache.*:*", "com.acme.*.xml:lib-1?");
+        catalog.streamCatalog = stream;
+        ctx = new ExecutionContext(
+                new ChmLogger(catalog.getLog()),
+                fixtures.classpath,
+                Collections.<File, MyArtifact>emptyMap(),
+                ArtifactMatcher.compile(catalog.includes),
+                ArtifactMatcher.compile(catalog.excludes));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PipelineFixtures.delete(basedir);
+    }
+
+    @Benchmark
+    public void execute() throws Exception {
+        catalog.execute();
+    }
+
+    @Benchmark
+    public void shouldProcessDependency(Blackhole bh) {
+        for (DependencyNode dn : fixtures.nodes) {
+            bh.consume(catalog.shouldProcessDependency(ctx, dn));
+        }
+    }
+
+    @Benchmark
+    public void buildPattern(Blackhole bh) {
+        for (DependencyNode dn : fixtures.nodes) {
+            bh.consume(catalog.buildPattern(
+                    "standard", dn.getArtifact().getGroupId(), dn.getArtifact().getArtifactId(), dn.getArtifact().getVersion()));
+        }
+    }
+
+    @Benchmark
+    public void loadArtifactFromDir(Blackhole bh) {
+        PomReader.clearCache();
+        for (File moduleDir : fixtures.moduleDirs) {
+            bh.consume(catalog.loadArtifactFromDir(ctx, moduleDir));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A synthetic project, with a dependency graph of any size, for benchmarks. Nothing is resolved :
+ * jars are classpath strings in a fake local repository, only reactor modules exist on disk.
+ * <ul>
+ *   <li>nodes form a tree where each node has up to {@value #FAN_OUT} children ;</li>
+ *   <li>one node out of {@value #JAR_WITH_DEPENDENCIES_EVERY} is a {@code jar-with-dependencies} ;</li>
+ *   <li>one node out of {@value #MODULE_EVERY} is a reactor module, whose classpath entry is
+ *   {@code target/classes}, and whose version is inherited from its parent pom.</li>
+ * </ul>
+ */
+class PipelineFixtures {
+    static final int FAN_OUT = 8;
+    static final int JAR_WITH_DEPENDENCIES_EVERY = 100;
+    static final int MODULE_EVERY = 50;
+    static final String REPOSITORY = new File("/home/builder/.m2/repository").getAbsolutePath();
+
+    final File basedir;
+    final MavenProject project;
+    final DependencyNode root;
+    /** All nodes, root excluded, in creation order */
+    final List<DependencyNode> nodes;
+    final List<String> classpath;
+    final List<File> moduleDirs;
+
+    /**
+     * @param basedir An empty directory, where project and reactor modules are created
+     * @param size Number of nodes, root excluded
+     */
+    PipelineFixtures(File basedir, int size) throws IOException {
+        super();
+        this.basedir = basedir;
+        File reactor = new File(basedir, "reactor");
+        reactor.mkdirs();
+        write(new File(reactor, "pom.xml"), "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<groupId>com.acme.reactor</groupId><artifactId>reactor</artifactId><version>1.0.0</version></project>");
+        Artifact rootArtifact = artifact("com.acme.reactor", "application", "1.0.0", null);
+        root = node(null, rootArtifact);
+        nodes = new ArrayList<>(size);
+        classpath = new ArrayList<>(size);
+        moduleDirs = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            DependencyNode parent = i <= FAN_OUT ? root : nodes.get((i - 1) / FAN_OUT - 1);
+            Artifact artifact;
+            if (i % MODULE_EVERY == 5) {
+                artifact = artifact("com.acme.reactor", "module-" + i, "1.0.0", null);
+                File moduleDir = new File(reactor, artifact.getArtifactId());
+                new File(moduleDir, "target/classes").mkdirs();
+                write(new File(moduleDir, "pom.xml"), "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                        + "<parent><groupId>com.acme.reactor</groupId><artifactId>reactor</artifactId>"
+                        + "<version>1.0.0</version></parent>"
+                        + "<artifactId>" + artifact.getArtifactId() + "</artifactId></project>");
+                moduleDirs.add(moduleDir);
+                classpath.add(new File(moduleDir, "target/classes").getAbsolutePath());
+            } else {
+                artifact = artifact(
+                        "com.acme.group" + (i % 200) + (i % 3 == 0 ? ".xml" : ""),
+                        "lib-" + i,
+                        "1." + (i % 10) + "." + (i % 3),
+                        i % JAR_WITH_DEPENDENCIES_EVERY == 0 ? "jar-with-dependencies" : null);
+                classpath.add(repositoryPath(artifact));
+            }
+            nodes.add(node(parent, artifact));
+        }
+        project = project(basedir, rootArtifact, classpath);
+    }
+
+    /**
+     * A catalog execution on this project, that logs only warnings.
+     */
+    Catalog catalog() {
+        Catalog catalog = new Catalog();
+        catalog.project = project;
+        catalog.catalogFileName = "catalog.xml";
+        catalog.removeDoctype = true;
+        catalog.setDependencyGraphBuilder(graphBuilder(root));
+        catalog.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        return catalog;
+    }
+
+    static Artifact artifact(String groupId, String artifactId, String version, String classifier) {
+        return new DefaultArtifact(groupId, artifactId, version, "compile", "jar", classifier, new DefaultArtifactHandler("jar"));
+    }
+
+    static DependencyNode node(DependencyNode parent, Artifact artifact) {
+        DefaultDependencyNode ret = new DefaultDependencyNode(parent, artifact, null, null, null);
+        ret.setChildren(new ArrayList<DependencyNode>());
+        if (parent != null) {
+            // children lists are mutable here, fixtures are built once
+            parent.getChildren().add(ret);
+        }
+        return ret;
+    }
+
+    static String repositoryPath(Artifact artifact) {
+        File dir = new File(REPOSITORY, artifact.getGroupId().replace('.', File.separatorChar));
+        dir = new File(new File(dir, artifact.getArtifactId()), artifact.getBaseVersion());
+        String name = artifact.getArtifactId() + "-" + artifact.getVersion()
+                + (artifact.getClassifier() != null ? "-" + artifact.getClassifier() : "") + ".jar";
+        return new File(dir, name).getAbsolutePath();
+    }
+
+    static MavenProject project(File basedir, Artifact artifact, final List<String> classpath) {
+        MavenProject project = new MavenProject() {
+            @Override
+            public List<String> getCompileClasspathElements() {
+                return classpath;
+            }
+        };
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setArtifact(artifact);
+        project.setGroupId(artifact.getGroupId());
+        project.setArtifactId(artifact.getArtifactId());
+        project.setVersion(artifact.getVersion());
+        project.getBuild().setDirectory(new File(basedir, "target").getAbsolutePath());
+        return project;
+    }
+
+    static DependencyGraphBuilder graphBuilder(final DependencyNode root) {
+        return new DependencyGraphBuilder() {
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter) {
+                return root;
+            }
+
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter, Collection<MavenProject> reactorProjects) {
+                return root;
+            }
+        };
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes {@code file}, and its content if it is a directory.
+     */
+    static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,124 @@
+package top.marchand.xml.maven.catalog;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.s9api.DocumentBuilder;
+import net.sf.saxon.s9api.Processor;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XPathCompiler;
+import net.sf.saxon.s9api.XPathExecutable;
+import net.sf.saxon.s9api.XPathSelector;
+import net.sf.saxon.s9api.XdmItem;
+import net.sf.saxon.s9api.XdmNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the StAX {@link PomReader} with a Saxon tree and a compiled XPath, on poms of
+ * 1 KB, 100 KB and 2 MB, whose size comes from a {@code dependencyManagement} section.
+ * <p>
+ * {@code inherited=true} poms declare neither groupId nor version, so the whole
+ * file has to be read ; otherwise, coordinates are declared before {@code dependencyManagement}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomReaderBenchmark {
+
+    @Param({"1", "100", "2048"})
+    public int sizeInKb;
+
+    @Param({"false", "true"})
+    public boolean inherited;
+
+    private File pomFile;
+    private PomReader staxReader;
+    private DocumentBuilder builder;
+    private XPathExecutable coordinatesXPath;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        pomFile = File.createTempFile("pom", ".xml");
+        Files.write(pomFile.toPath(), generatePom(sizeInKb * 1024, inherited).getBytes(StandardCharsets.UTF_8));
+        staxReader = new PomReader();
+        Processor proc = new Processor(Configuration.newConfiguration());
+        builder = proc.newDocumentBuilder();
+        XPathCompiler xpathCompiler = proc.newXPathCompiler();
+        xpathCompiler.declareNamespace("mvn", "http://maven.apache.org/POM/4.0.0");
+        coordinatesXPath = xpathCompiler.compile(
+                "/mvn:project/(mvn:groupId | mvn:artifactId | mvn:version | mvn:parent/mvn:relativePath)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pomFile.delete();
+    }
+
+    @Benchmark
+    public Object stax() throws Exception {
+        return staxReader.parse(pomFile);
+    }
+
+    @Benchmark
+    public Object saxon() throws SaxonApiException {
+        XdmNode pom = builder.build(pomFile);
+        XPathSelector selector = coordinatesXPath.load();
+        selector.setContextItem(pom);
+        String[] ret = new String[4];
+        int i = 0;
+        for (XdmItem item : selector) {
+            ret[i++] = item.getStringValue();
+        }
+        return ret;
+    }
+
+    static String generatePom(int size, boolean inherited) {
+        StringBuilder sb = new StringBuilder(size + 1024);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n")
+                .append("  <parent>\n")
+                .append("    <groupId>top.marchand.bench</groupId>\n")
+                .append("    <artifactId>parent</artifactId>\n")
+                .append("    <version>1.0.0</version>\n")
+                .append("    <relativePath>../parent</relativePath>\n")
+                .append("  </parent>\n");
+        if (!inherited) {
+            sb.append("  <groupId>top.marchand.bench</groupId>\n");
+        }
+        sb.append("  <artifactId>module</artifactId>\n");
+        if (!inherited) {
+            sb.append("  <version>1.0.0</version>\n");
+        }
+        sb.append("  <dependencyManagement>\n    <dependencies>\n");
+        int i = 0;
+        while (sb.length() < size - 64) {
+            sb.append("      <dependency>\n")
+                    .append("        <groupId>com.acme.group").append(i % 50).append("</groupId>\n")
+                    .append("        <artifactId>artifact-").append(i).append("</artifactId>\n")
+                    .append("        <version>1.").append(i % 20).append(".0</version>\n")
+                    .append("      </dependency>\n");
+            i++;
+        }
+        sb.append("    </dependencies>\n  </dependencyManagement>\n</project>\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package top.marchand.xml.maven.catalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the StAX factories in each execution : looked up and configured by every
+ * execution, as before {@link XmlFactories}, or shared by all executions of the JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlFactoriesBenchmark {
+
+    @Benchmark
+    public void perExecution(Blackhole bh) {
+        XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        bh.consume(inputFactory);
+        bh.consume(XMLOutputFactory.newFactory());
+    }
+
+    @Benchmark
+    public void shared(Blackhole bh) {
+        bh.consume(XmlFactories.inputFactory());
+        bh.consume(XmlFactories.outputFactory());
+    }
+}
@@ -0,0 +1,248 @@
+package top.marchand.xml.catalog.resolver;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The entries of one catalog file, indexed for lookups.
+ * <p>
+ * For each kind of identifier, exact entries ({@code uri}, {@code system}, {@code public}) are in
+ * a hash map, and {@code rewrite*} and {@code delegate*} entries are in {@link PrefixTrie}s, keyed by
+ * their start string. When several entries have the same name or start string, the first one wins.
+ */
+final class CatalogFile {
+    static final String CATALOG_NS = "urn:oasis:names:tc:entity:xmlns:xml:catalog";
+    private static final String XML_NS = "http://www.w3.org/XML/1998/namespace";
+
+    /**
+     * The kinds of identifiers a catalog resolves
+     */
+    enum Kind {
+        URI, SYSTEM, PUBLIC
+    }
+
+    private final Map<String, String>[] exact;
+    private final PrefixTrie<Rewrite>[] rewrites;
+    private final PrefixTrie<Delegate>[] delegates;
+    private final List<URI> nextCatalogs = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private CatalogFile() {
+        super();
+        int kinds = Kind.values().length;
+        exact = new Map[kinds];
+        rewrites = new PrefixTrie[kinds];
+        delegates = new PrefixTrie[kinds];
+        for (int i = 0; i < kinds; i++) {
+            exact[i] = new HashMap<>();
+            rewrites[i] = new PrefixTrie<>();
+            delegates[i] = new PrefixTrie<>();
+        }
+    }
+
+    static CatalogFile empty() {
+        return new CatalogFile();
+    }
+
+    /**
+     * @return The target of an exact entry for {@code id}, or {@code null}
+     */
+    String getExact(Kind kind, String id) {
+        return exact[kind.ordinal()].get(id);
+    }
+
+    /**
+     * @return {@code id}, rewritten by the entry with the longest matching start string, or {@code null}
+     */
+    String rewrite(Kind kind, String id) {
+        Rewrite rewrite = rewrites[kind.ordinal()].longestMatch(id);
+        return rewrite != null ? rewrite.prefix + id.substring(rewrite.startString.length()) : null;
+    }
+
+    /**
+     * @return Catalogs to delegate {@code id} resolution to, longest matching start string first
+     */
+    List<URI> getDelegates(Kind kind, String id) {
+        List<Delegate> matches = delegates[kind.ordinal()].allMatches(id);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<URI> ret = new ArrayList<>();
+        for (Delegate delegate : matches) {
+            for (URI catalog : delegate.catalogs) {
+                if (!ret.contains(catalog)) {
+                    ret.add(catalog);
+                }
+            }
+        }
+        return ret;
+    }
+
+    List<URI> getNextCatalogs() {
+        return nextCatalogs;
+    }
+
+    /**
+     * Reads a catalog. Elements are recognized anywhere in the document, so {@code group}s are
+     * transparent. Relative URIs are resolved against {@code xml:base}, or the catalog URI.
+     */
+    static CatalogFile read(URI catalogUri, XMLInputFactory inputFactory) throws IOException, XMLStreamException {
+        CatalogFile ret = new CatalogFile();
+        try (InputStream is = catalogUri.toURL().openStream()) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(catalogUri.toString(), is);
+            try {
+                Deque<String> bases = new ArrayDeque<>();
+                bases.push(catalogUri.toString());
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        bases.pop();
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        String xmlBase = reader.getAttributeValue(XML_NS, "base");
+                        String base = xmlBase != null ? absolutize(bases.peek(), xmlBase) : bases.peek();
+                        bases.push(base);
+                        if (CATALOG_NS.equals(reader.getNamespaceURI())) {
+                            ret.addEntry(reader, base);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return ret;
+    }
+
+    private void addEntry(XMLStreamReader reader, String base) {
+        switch (reader.getLocalName()) {
+            case "uri":
+                addExact(Kind.URI, attribute(reader, "name"), absolutize(base, attribute(reader, "uri")));
+                break;
+            case "system":
+                // catalogBuilder-maven-plugin up to 4.0 wrote name instead of systemId
+                String systemId = attribute(reader, "systemId");
+                addExact(Kind.SYSTEM, systemId != null ? systemId : attribute(reader, "name"),
+                        absolutize(base, attribute(reader, "uri")));
+                break;
+            case "public":
+                addExact(Kind.PUBLIC, attribute(reader, "publicId"), absolutize(base, attribute(reader, "uri")));
+                break;
+            case "rewriteURI":
+                addRewrite(Kind.URI, attribute(reader, "uriStartString"), absolutize(base, attribute(reader, "rewritePrefix")));
+                break;
+            case "rewriteSystem":
+                addRewrite(Kind.SYSTEM, attribute(reader, "systemIdStartString"), absolutize(base, attribute(reader, "rewritePrefix")));
+                break;
+            case "delegateURI":
+                addDelegate(Kind.URI, attribute(reader, "uriStartString"), absolutize(base, attribute(reader, "catalog")));
+                break;
+            case "delegateSystem":
+                addDelegate(Kind.SYSTEM, attribute(reader, "systemIdStartString"), absolutize(base, attribute(reader, "catalog")));
+                break;
+            case "delegatePublic":
+                addDelegate(Kind.PUBLIC, attribute(reader, "publicIdStartString"), absolutize(base, attribute(reader, "catalog")));
+                break;
+            case "nextCatalog":
+                String catalog = absolutize(base, attribute(reader, "catalog"));
+                URI uri = toUri(catalog);
+                if (uri != null) {
+                    nextCatalogs.add(uri);
+                }
+                break;
+            default:
+                // catalog, group, and unsupported entries
+        }
+    }
+
+    private void addExact(Kind kind, String id, String target) {
+        if (id != null && target != null && !exact[kind.ordinal()].containsKey(id)) {
+            exact[kind.ordinal()].put(id, target);
+        }
+    }
+
+    private void addRewrite(Kind kind, String startString, String prefix) {
+        if (startString != null && prefix != null) {
+            rewrites[kind.ordinal()].putIfAbsent(startString, new Rewrite(startString, prefix));
+        }
+    }
+
+    private void addDelegate(Kind kind, String startString, String catalog) {
+        URI uri = toUri(catalog);
+        if (startString == null || uri == null) {
+            return;
+        }
+        Delegate delegate = new Delegate();
+        Delegate existing = delegates[kind.ordinal()].putIfAbsent(startString, delegate);
+        (existing != null ? existing : delegate).catalogs.add(uri);
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * Resolves {@code value} against {@code base}. Values that already have a scheme are
+     * returned as is, even if they are not valid URIs, as {@code jar:file:} URIs with spaces.
+     */
+    static String absolutize(String base, String value) {
+        if (value == null || base == null || hasScheme(value)) {
+            return value;
+        }
+        try {
+            return new URI(base).resolve(new URI(value)).toString();
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return value;
+        }
+    }
+
+    private static boolean hasScheme(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ':') {
+                return i > 0;
+            }
+            if (!(Character.isLetterOrDigit(c) || c == '+' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static URI toUri(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new URI(value);
+        } catch (URISyntaxException ex) {
+            return null;
+        }
+    }
+
+    private static final class Rewrite {
+        private final String startString;
+        private final String prefix;
+
+        private Rewrite(String startString, String prefix) {
+            this.startString = startString;
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Delegate {
+        private final List<URI> catalogs = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,180 @@
+package top.marchand.xml.catalog.resolver;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Source;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves URIs, system identifiers and public identifiers with OASIS XML catalogs, as generated by
+ * {@code catalogBuilder-maven-plugin}.
+ * <p>
+ * Each catalog is read once, and indexed : exact entries in hash maps, {@code rewriteURI},
+ * {@code rewriteSystem} and {@code delegate*} entries in prefix tries. So a lookup costs
+ * {@code O(length of identifier)} per catalog, not {@code O(entries)}.
+ * <p>
+ * Resolution follows OASIS XML Catalogs 1.1 : in each catalog, an exact entry wins over rewrite entries,
+ * the rewrite entry with the longest start string wins over others ; if no rewrite matches, matching
+ * delegate catalogs are searched, longest start string first, and next catalogs are not ;
+ * otherwise {@code nextCatalog}s are searched, in order. Suffix entries and URI normalization are
+ * not supported. Catalogs that can not be read, except the ones given to the constructor, are ignored.
+ * <p>
+ * Instances are thread-safe, and should be shared.
+ */
+public final class CatalogResolver implements URIResolver, EntityResolver {
+    private final List<URI> catalogs;
+    private final ConcurrentHashMap<URI, CatalogFile> loaded = new ConcurrentHashMap<>();
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * @param catalogs Catalogs to search, in order. They are read immediately.
+     * @throws IOException If a catalog can not be read
+     */
+    public CatalogResolver(URI... catalogs) throws IOException {
+        super();
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        this.catalogs = new ArrayList<>(Arrays.asList(catalogs));
+        for (URI catalog : this.catalogs) {
+            try {
+                loaded.put(catalog, CatalogFile.read(catalog, inputFactory));
+            } catch (XMLStreamException ex) {
+                throw new IOException("Unable to read catalog " + catalog, ex);
+            }
+        }
+    }
+
+    /**
+     * @param catalogs Catalogs to search, in order. They are read immediately.
+     * @throws IOException If a catalog can not be read
+     */
+    public CatalogResolver(File... catalogs) throws IOException {
+        this(toUris(catalogs));
+    }
+
+    /**
+     * @param uri A URI, as {@code dependency:/groupId+artifactId/path/to/resource.xsl}
+     * @return The resolved URI, or {@code null} if no catalog entry matches
+     */
+    public String resolveURI(String uri) {
+        return resolve(catalogs, CatalogFile.Kind.URI, uri, new HashSet<URI>());
+    }
+
+    /**
+     * @param systemId A system identifier
+     * @return The resolved URI, or {@code null} if no catalog entry matches
+     */
+    public String resolveSystem(String systemId) {
+        return resolve(catalogs, CatalogFile.Kind.SYSTEM, systemId, new HashSet<URI>());
+    }
+
+    /**
+     * @param publicId A public identifier
+     * @return The resolved URI, or {@code null} if no catalog entry matches
+     */
+    public String resolvePublic(String publicId) {
+        return resolve(catalogs, CatalogFile.Kind.PUBLIC, publicId, new HashSet<URI>());
+    }
+
+    /**
+     * Resolves {@code href}, made absolute against {@code base}, with {@code uri} entries.
+     *
+     * @return A source on the resolved URI, or {@code null} to let the processor resolve {@code href}
+     */
+    @Override
+    public Source resolve(String href, String base) {
+        if (href == null) {
+            return null;
+        }
+        String absolute = CatalogFile.absolutize(base, href);
+        String resolved = resolveURI(absolute);
+        if (resolved == null && !absolute.equals(href)) {
+            resolved = resolveURI(href);
+        }
+        return resolved != null ? new StreamSource(resolved) : null;
+    }
+
+    /**
+     * Resolves {@code systemId} with {@code system} entries, then {@code publicId} with {@code public} entries.
+     *
+     * @return An input source on the resolved URI, or {@code null} to let the parser resolve the entity
+     */
+    @Override
+    public InputSource resolveEntity(String publicId, String systemId) {
+        String resolved = systemId != null ? resolveSystem(systemId) : null;
+        if (resolved == null && publicId != null) {
+            resolved = resolvePublic(publicId);
+        }
+        if (resolved == null) {
+            return null;
+        }
+        InputSource ret = new InputSource(resolved);
+        ret.setPublicId(publicId);
+        return ret;
+    }
+
+    private String resolve(List<URI> catalogs, CatalogFile.Kind kind, String id, Set<URI> visited) {
+        for (URI catalog : catalogs) {
+            if (!visited.add(catalog)) {
+                // nextCatalog loop
+                continue;
+            }
+            CatalogFile file = load(catalog);
+            String ret = file.getExact(kind, id);
+            if (ret == null) {
+                ret = file.rewrite(kind, id);
+            }
+            if (ret != null) {
+                return ret;
+            }
+            List<URI> delegates = file.getDelegates(kind, id);
+            if (!delegates.isEmpty()) {
+                return resolve(delegates, kind, id, new HashSet<URI>());
+            }
+            ret = resolve(file.getNextCatalogs(), kind, id, visited);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return null;
+    }
+
+    private CatalogFile load(URI catalog) {
+        CatalogFile ret = loaded.get(catalog);
+        if (ret == null) {
+            try {
+                ret = CatalogFile.read(catalog, inputFactory);
+            } catch (IOException | XMLStreamException ex) {
+                ret = CatalogFile.empty();
+            }
+            CatalogFile previous = loaded.putIfAbsent(catalog, ret);
+            if (previous != null) {
+                ret = previous;
+            }
+        }
+        return ret;
+    }
+
+    private static URI[] toUris(File[] files) {
+        URI[] ret = new URI[files.length];
+        for (int i = 0; i < files.length; i++) {
+            ret[i] = files[i].getAbsoluteFile().toURI();
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,167 @@
+package top.marchand.xml.catalog.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A radix tree, where each edge holds a string, and children are sorted by their first char.
+ * <p>
+ * Lookups walk the tree along the looked up string, so they cost {@code O(length)}, whatever
+ * the number of keys.
+ *
+ * @param <V> Values type
+ */
+final class PrefixTrie<V> {
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    /**
+     * Associates {@code value} to {@code key}, if {@code key} has no value yet.
+     *
+     * @return The value already associated to {@code key}, or {@code null} if {@code value} has been stored
+     */
+    V putIfAbsent(String key, V value) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                node.insert(-index - 1, new Node<>(key.substring(i), value));
+                size++;
+                return null;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // split child edge
+                Node<V> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.insert(0, child);
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.value != null) {
+            return node.value;
+        }
+        node.value = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * @return The value of the longest key that is a prefix of {@code s}, or {@code null}
+     */
+    V longestMatch(String s) {
+        Node<V> node = root;
+        V ret = root.value;
+        int i = 0;
+        while (i < s.length()) {
+            int index = node.indexOf(s.charAt(i));
+            if (index < 0) {
+                break;
+            }
+            node = node.children[index];
+            if (!s.startsWith(node.label, i)) {
+                break;
+            }
+            i += node.label.length();
+            if (node.value != null) {
+                ret = node.value;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @return The values of all keys that are a prefix of {@code s}, longest key first
+     */
+    List<V> allMatches(String s) {
+        List<V> ret = null;
+        Node<V> node = root;
+        if (root.value != null) {
+            ret = new ArrayList<>();
+            ret.add(root.value);
+        }
+        int i = 0;
+        while (i < s.length()) {
+            int index = node.indexOf(s.charAt(i));
+            if (index < 0) {
+                break;
+            }
+            node = node.children[index];
+            if (!s.startsWith(node.label, i)) {
+                break;
+            }
+            i += node.label.length();
+            if (node.value != null) {
+                if (ret == null) {
+                    ret = new ArrayList<>();
+                }
+                ret.add(node.value);
+            }
+        }
+        if (ret == null) {
+            return Collections.emptyList();
+        }
+        Collections.reverse(ret);
+        return ret;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<V> {
+        private static final char[] NO_CHARS = new char[0];
+
+        private String label;
+        private V value;
+        private char[] firstChars = NO_CHARS;
+        private Node<V>[] children = newArray(0);
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node(String label, V value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        private int indexOf(char c) {
+            return Arrays.binarySearch(firstChars, c);
+        }
+
+        private void insert(int index, Node<V> child) {
+            char[] chars = new char[firstChars.length + 1];
+            System.arraycopy(firstChars, 0, chars, 0, index);
+            chars[index] = child.label.charAt(0);
+            System.arraycopy(firstChars, index, chars, index + 1, firstChars.length - index);
+            Node<V>[] nodes = newArray(children.length + 1);
+            System.arraycopy(children, 0, nodes, 0, index);
+            nodes[index] = child;
+            System.arraycopy(children, index, nodes, index + 1, children.length - index);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package top.marchand.xml.catalog.resolver;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.InputSource;
+
+import javax.xml.transform.Source;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class CatalogResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File catalog(String name, String entries) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE catalog PUBLIC \"-//OASIS//DTD Entity Resolution XML Catalog V1.0//EN\" "
+                + "\"http://www.oasis-open.org/committees/entity/release/1.0/catalog.dtd\">\n"
+                + "<catalog xmlns=\"urn:oasis:names:tc:entity:xmlns:xml:catalog\">" + entries + "</catalog>")
+                .getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testGeneratedCatalog() throws Exception {
+        File file = catalog("catalog.xml",
+                "<rewriteURI uriStartString=\"dependency:/org.acme+lib/\" rewritePrefix=\"jar:file:/m2 repo/lib-1.0.jar!/\"/>"
+                + "<rewriteSystem systemIdStartString=\"dependency:/org.acme+lib/\" rewritePrefix=\"jar:file:/m2 repo/lib-1.0.jar!/\"/>"
+                + "<rewriteURI uriStartString=\"dependency:/org.acme+lib/xsl/\" rewritePrefix=\"file:/work/xsl/\"/>"
+                + "<rewriteURI uriStartString=\"dependency:/org.acme+lib/\" rewritePrefix=\"file:/ignored/\"/>"
+                + "<uri name=\"dependency:/org.acme+lib/xsl/main.xsl\" uri=\"file:/work/main.xsl\"/>"
+                + "<system name=\"dependency:/legacy.dtd\" uri=\"file:/work/legacy.dtd\"/>"
+                + "<public publicId=\"-//ACME//DTD Doc//EN\" uri=\"doc.dtd\"/>");
+        CatalogResolver resolver = new CatalogResolver(file);
+        Assert.assertEquals("jar:file:/m2 repo/lib-1.0.jar!/schemas/a.xsd", resolver.resolveURI("dependency:/org.acme+lib/schemas/a.xsd"));
+        Assert.assertEquals("file:/work/xsl/other.xsl", resolver.resolveURI("dependency:/org.acme+lib/xsl/other.xsl"));
+        Assert.assertEquals("file:/work/main.xsl", resolver.resolveURI("dependency:/org.acme+lib/xsl/main.xsl"));
+        Assert.assertEquals("jar:file:/m2 repo/lib-1.0.jar!/a.dtd", resolver.resolveSystem("dependency:/org.acme+lib/a.dtd"));
+        Assert.assertEquals("file:/work/legacy.dtd", resolver.resolveSystem("dependency:/legacy.dtd"));
+        Assert.assertNull(resolver.resolveURI("dependency:/org.acme+other/a.xsd"));
+        Assert.assertEquals(file.toURI().resolve("doc.dtd").toString(), resolver.resolvePublic("-//ACME//DTD Doc//EN"));
+
+        Source source = resolver.resolve("a.xsd", "dependency:/org.acme+lib/schemas/main.xsd");
+        Assert.assertEquals("jar:file:/m2 repo/lib-1.0.jar!/schemas/a.xsd", source.getSystemId());
+        Assert.assertNull(resolver.resolve("http://www.acme.org/a.xsd", null));
+        InputSource input = resolver.resolveEntity("-//ACME//DTD Doc//EN", "http://www.acme.org/doc.dtd");
+        Assert.assertEquals(file.toURI().resolve("doc.dtd").toString(), input.getSystemId());
+    }
+
+    @Test
+    public void testChains() throws Exception {
+        catalog("delegated/first.xml",
+                "<group xml:base=\"file:/first/\"><rewriteURI uriStartString=\"dependency:/org.acme+\" rewritePrefix=\"acme/\"/></group>");
+        catalog("delegated/second.xml",
+                "<rewriteURI uriStartString=\"dependency:/org.acme+lib/\" rewritePrefix=\"file:/second/\"/>"
+                + "<rewriteURI uriStartString=\"dependency:/org.acme+tool/\" rewritePrefix=\"file:/second-tool/\"/>");
+        catalog("next.xml",
+                "<rewriteURI uriStartString=\"dependency:/org.other+\" rewritePrefix=\"file:/next/\"/>"
+                + "<nextCatalog catalog=\"catalog.xml\"/>");
+        File file = catalog("catalog.xml",
+                "<delegateURI uriStartString=\"dependency:/org.acme+\" catalog=\"delegated/first.xml\"/>"
+                + "<delegateURI uriStartString=\"dependency:/org.acme+lib/\" catalog=\"delegated/second.xml\"/>"
+                + "<nextCatalog catalog=\"missing.xml\"/>"
+                + "<nextCatalog catalog=\"next.xml\"/>");
+        CatalogResolver resolver = new CatalogResolver(file);
+        // longest delegate first
+        Assert.assertEquals("file:/second/a.xsd", resolver.resolveURI("dependency:/org.acme+lib/a.xsd"));
+        Assert.assertEquals("file:/first/acme/tool/a.xsd", resolver.resolveURI("dependency:/org.acme+tool/a.xsd"));
+        // missing catalogs are ignored, and nextCatalog loops are cut
+        Assert.assertEquals("file:/next/x/a.xsd", resolver.resolveURI("dependency:/org.other+x/a.xsd"));
+        Assert.assertNull(resolver.resolveURI("dependency:/com.foo+x/a.xsd"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingCatalog() throws Exception {
+        new CatalogResolver(new File(folder.getRoot(), "missing.xml"));
+    }
+}
@@ -0,0 +1,39 @@
+package top.marchand.xml.catalog.resolver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class PrefixTrieTest {
+
+    @Test
+    public void testLongestMatch() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        Assert.assertNull(trie.putIfAbsent("dependency:/a+b/", "ab"));
+        Assert.assertNull(trie.putIfAbsent("dependency:/a+bc/", "abc"));
+        Assert.assertNull(trie.putIfAbsent("dependency:/a+b/sub/", "ab-sub"));
+        Assert.assertNull(trie.putIfAbsent("dependency:/", "root"));
+        Assert.assertEquals("ab", trie.putIfAbsent("dependency:/a+b/", "other"));
+        Assert.assertEquals(4, trie.size());
+
+        Assert.assertEquals("ab", trie.longestMatch("dependency:/a+b/file.xsl"));
+        Assert.assertEquals("ab-sub", trie.longestMatch("dependency:/a+b/sub/file.xsl"));
+        Assert.assertEquals("abc", trie.longestMatch("dependency:/a+bc/file.xsl"));
+        Assert.assertEquals("root", trie.longestMatch("dependency:/a+bd/file.xsl"));
+        Assert.assertEquals("root", trie.longestMatch("dependency:/"));
+        Assert.assertNull(trie.longestMatch("dependency:"));
+        Assert.assertNull(trie.longestMatch("http://www.w3.org/"));
+        Assert.assertEquals(Arrays.asList("ab-sub", "ab", "root"), trie.allMatches("dependency:/a+b/sub/x"));
+    }
+
+    @Test
+    public void testEmptyKey() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        trie.putIfAbsent("", "any");
+        trie.putIfAbsent("a", "a");
+        Assert.assertEquals("any", trie.longestMatch("b"));
+        Assert.assertEquals("a", trie.longestMatch("ab"));
+        Assert.assertEquals(Arrays.asList("a", "any"), trie.allMatches("ab"));
+    }
+}
@@ -0,0 +1,181 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import top.marchand.xml.maven.catalog.model.CatalogConflictException;
+import top.marchand.xml.maven.catalog.model.CatalogModel;
+import top.marchand.xml.maven.catalog.model.RewriteSystemModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Generates the catalogs of all modules of the reactor, in a single execution.
+ * <p>
+ * Each module gets its own {@link #catalogFileName}, as with the {@code catalog} goal, but modules
+ * are generated in parallel, and share jar inspection, resource extraction and resolved dependencies :
+ * a dependency is resolved once, and its entries are reused by every module whose classpath holds the
+ * same jar or directory. A single catalog, that merges entries of all modules in reactor order, may also be written.
+ * <p>
+ * Jars of all modules classpaths are inspected once, before modules are generated. Modules share
+ * {@link #inspectionThreads} for manifest listings, so that no more threads than the largest of
+ * {@link #moduleThreads} and {@link #inspectionThreads} run at the same time.
+ */
+@Mojo(
+        name = "aggregate",
+        aggregator = true,
+        defaultPhase = LifecyclePhase.PROCESS_RESOURCES,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        threadSafe = true)
+public class AggregateCatalog extends Catalog {
+
+    /**
+     * Number of modules generated at the same time. {@code 0} means the number of available processors.
+     * {@link #inspectionThreads} are divided among them.
+     */
+    @Parameter(property = "catalog.moduleThreads", defaultValue = "0")
+    public int moduleThreads;
+
+    /**
+     * If set, a catalog with the entries of all modules is written to this file, relative to
+     * the top-level project. When set, modules catalogs are always generated, as if {@code incremental}
+     * and {@code streamCatalog} were {@code false}, because their entries are required.
+     */
+    @Parameter(property = "catalog.sharedCatalogFileName")
+    public String sharedCatalogFileName;
+
+    /**
+     * Modules to generate ; if null, projects of session that are not {@code pom} packaged.
+     */
+    List<MavenProject> modules;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        List<MavenProject> projects = getModules();
+        ExecutionMetrics sharedMetrics = new ExecutionMetrics();
+        ResourceGlobs resourceGlobs = new ResourceGlobs(xmlResources);
+        File sharedResourcesDirectory = getResourcesDirectory();
+        SharedResources shared = new SharedResources(
+                skipJarsWithoutResources ? newJarInspector(resourceGlobs, sharedMetrics) : null,
+                extractResources ? new ResourceExtractor(sharedResourcesDirectory, resourceGlobs, sharedMetrics) : null);
+        boolean merge = sharedCatalogFileName != null && !sharedCatalogFileName.isEmpty();
+        int threads = Math.max(1, Math.min(
+                moduleThreads > 0 ? moduleThreads : Runtime.getRuntime().availableProcessors(),
+                projects.size()));
+        // nested pools : modules share the inspection threads
+        int threadsPerModule = Math.max(1, getInspectionThreads() / threads);
+        List<Callable<CatalogModel>> tasks = new ArrayList<>(projects.size());
+        for (MavenProject module : projects) {
+            Catalog catalog = forModule(module);
+            catalog.resourcesDirectory = sharedResourcesDirectory;
+            catalog.inspectionThreads = threadsPerModule;
+            if (merge) {
+                catalog.incremental = false;
+                catalog.streamCatalog = false;
+            }
+            tasks.add(() -> catalog.generate(shared));
+        }
+        List<CatalogModel> models;
+        try {
+            if (shared.getJarInspector() != null) {
+                long start = sharedMetrics.start();
+                shared.getJarInspector().inspectAll(getClasspaths(projects), getInspectionThreads());
+                sharedMetrics.stop(ExecutionMetrics.Phase.JAR_INSPECTION, start);
+            }
+            models = ParallelTasks.run(tasks, threads, "catalog-module");
+            shared.store();
+            reportSharedMetrics(sharedMetrics, shared, projects.size());
+        } catch (IOException ex) {
+            if (ex.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) ex.getCause();
+            }
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        getLog().info("[catalog] " + projects.size() + " module catalog(s) generated");
+        if (merge) {
+            writeSharedCatalog(models);
+        }
+    }
+
+    /**
+     * @return The compile classpath elements of {@code projects}, without duplicates
+     */
+    private static Set<String> getClasspaths(List<MavenProject> projects) throws MojoExecutionException {
+        Set<String> ret = new LinkedHashSet<>();
+        for (MavenProject module : projects) {
+            try {
+                for (Object element : module.getCompileClasspathElements()) {
+                    ret.add(element.toString());
+                }
+            } catch (DependencyResolutionRequiredException ex) {
+                throw new MojoExecutionException(ex.getMessage(), ex);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Reports the work done once for all modules : jar inspection, resource extraction, and the number
+     * of dependencies resolved for other modules. Each module reports its own metrics.
+     */
+    private void reportSharedMetrics(ExecutionMetrics sharedMetrics, SharedResources shared, int modulesCount)
+            throws IOException {
+        newChmLogger().log(
+                ChmLogger.LogReason.METRICS,
+                ChmLogger.LogLevel.INFO,
+                () -> "[catalog] shared by " + modulesCount + " modules : " + sharedMetrics.toSummary()
+                        + " sharedResolutions=" + shared.getResolutionsCount());
+        if (metricsReport) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("groupId", project.getGroupId());
+            properties.put("artifactId", project.getArtifactId());
+            properties.put("version", project.getVersion());
+            properties.put("modules", modulesCount);
+            properties.put("sharedResolutions", shared.getResolutionsCount());
+            File reportFile = new File(new File(project.getBuild().getDirectory(), "catalogBuilder"), "aggregate.metrics.json");
+            AtomicFileWriter.writeIfChanged(reportFile, sharedMetrics.toJson(properties).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeSharedCatalog(List<CatalogModel> models) throws MojoExecutionException {
+        CatalogModel merged = new CatalogModel(conflictPolicy);
+        try {
+            for (CatalogModel model : models) {
+                for (RewriteSystemModel rsm : model.getEntries()) {
+                    merged.add(rsm, model.getDepth(rsm.getUriStartPrefix()));
+                }
+            }
+        } catch (CatalogConflictException ex) {
+            throw new MojoExecutionException("[catalog] " + ex.getMessage(), ex);
+        }
+        Catalog catalog = forModule(project);
+        catalog.catalogFileName = sharedCatalogFileName;
+        catalog.writeCatalog(merged);
+    }
+
+    private List<MavenProject> getModules() {
+        if (modules != null) {
+            return modules;
+        }
+        List<MavenProject> ret = new ArrayList<>();
+        for (MavenProject module : session.getProjects()) {
+            if (!"pom".equals(module.getPackaging())) {
+                ret.add(module);
+            }
+        }
+        return ret;
+    }
+}
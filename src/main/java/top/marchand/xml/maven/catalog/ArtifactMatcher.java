@@ -0,0 +1,244 @@
+package top.marchand.xml.maven.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled list of {@code groupId:artifactId} rules, as used by {@code includes} and {@code excludes}.
+ * <p>
+ * Both {@code groupId} and {@code artifactId} may contain {@code *} (any sequence of characters)
+ * and {@code ?} (any character) wildcards, for example {@code com.acme.*:*-schemas}.
+ * {@code *:*} matches every artifact ; before globs were supported, it never matched, as {@code *}
+ * was only recognized alone on one side of the rule.
+ * <ul>
+ *   <li>{@code g:a}, {@code *:a} and {@code g:*} rules are looked up in hash sets ;</li>
+ *   <li>other rules are indexed in a trie, by the literal prefix of their groupId, or else by the literal
+ *   suffix of their artifactId, the literal prefix of their artifactId, or the literal suffix of their
+ *   groupId. Only rules found while walking the tries along the artifact's coordinates are evaluated.</li>
+ * </ul>
+ * So lookup cost depends on the coordinates length, not on the number of rules. Only rules without
+ * any literal affix, as {@code *:*-schemas-*}, are evaluated for every artifact.
+ */
+class ArtifactMatcher {
+    private static final ArtifactMatcher EMPTY = new ArtifactMatcher(Collections.<String>emptyList());
+
+    private final Set<String> exact = new HashSet<>();
+    private final Set<String> anyGroup = new HashSet<>();
+    private final Set<String> anyArtifact = new HashSet<>();
+    private final TrieNode byGroupPrefix = new TrieNode();
+    private final TrieNode byArtifactSuffix = new TrieNode();
+    private final TrieNode byArtifactPrefix = new TrieNode();
+    private final TrieNode byGroupSuffix = new TrieNode();
+    private final List<GlobRule> unindexed = new ArrayList<>();
+    private final boolean empty;
+    private boolean matchesAll;
+
+    ArtifactMatcher(List<String> rules) {
+        super();
+        for (String rule : rules) {
+            add(rule);
+        }
+        empty = rules.isEmpty();
+    }
+
+    /**
+     * @param rules The rules, may be null
+     * @return A matcher for {@code rules}
+     */
+    static ArtifactMatcher compile(List<String> rules) {
+        return rules == null || rules.isEmpty() ? EMPTY : new ArtifactMatcher(rules);
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    boolean matches(String groupId, String artifactId) {
+        return findMatch(groupId, artifactId) != null;
+    }
+
+    /**
+     * Returns a rule that matches {@code groupId:artifactId}.
+     *
+     * @param groupId The groupId
+     * @param artifactId The artifactId
+     * @return The matching rule, or {@code null} if none matches
+     */
+    String findMatch(String groupId, String artifactId) {
+        String coordinates = groupId + ":" + artifactId;
+        if (exact.contains(coordinates)) {
+            return coordinates;
+        }
+        if (anyGroup.contains(artifactId)) {
+            return "*:" + artifactId;
+        }
+        if (anyArtifact.contains(groupId)) {
+            return groupId + ":*";
+        }
+        if (matchesAll) {
+            return "*:*";
+        }
+        String ret = byGroupPrefix.walk(groupId, false, coordinates);
+        if (ret == null) {
+            ret = byArtifactSuffix.walk(artifactId, true, coordinates);
+        }
+        if (ret == null) {
+            ret = byArtifactPrefix.walk(artifactId, false, coordinates);
+        }
+        if (ret == null) {
+            ret = byGroupSuffix.walk(groupId, true, coordinates);
+        }
+        if (ret != null) {
+            return ret;
+        }
+        for (GlobRule rule : unindexed) {
+            if (rule.matches(coordinates)) {
+                return rule.rule;
+            }
+        }
+        return null;
+    }
+
+    private void add(String rule) {
+        int colon = rule.indexOf(':');
+        if (colon < 0) {
+            // not a groupId:artifactId rule, it never matches
+            exact.add(rule);
+            return;
+        }
+        String groupId = rule.substring(0, colon);
+        String artifactId = rule.substring(colon + 1);
+        boolean literalGroup = isLiteral(groupId);
+        boolean literalArtifact = isLiteral(artifactId);
+        if (literalGroup && literalArtifact) {
+            exact.add(groupId + ":" + artifactId);
+        } else if ("*".equals(groupId) && literalArtifact) {
+            anyGroup.add(artifactId);
+        } else if (literalGroup && "*".equals(artifactId)) {
+            anyArtifact.add(groupId);
+        } else if ("*".equals(groupId) && "*".equals(artifactId)) {
+            matchesAll = true;
+        } else {
+            GlobRule glob = new GlobRule(rule, groupId, artifactId);
+            String groupPrefix = literalPrefix(groupId);
+            String artifactSuffix = literalSuffix(artifactId);
+            String artifactPrefix = literalPrefix(artifactId);
+            String groupSuffix = literalSuffix(groupId);
+            if (!groupPrefix.isEmpty()) {
+                byGroupPrefix.add(groupPrefix, false).rules.add(glob);
+            } else if (!artifactSuffix.isEmpty()) {
+                byArtifactSuffix.add(artifactSuffix, true).rules.add(glob);
+            } else if (!artifactPrefix.isEmpty()) {
+                byArtifactPrefix.add(artifactPrefix, false).rules.add(glob);
+            } else if (!groupSuffix.isEmpty()) {
+                byGroupSuffix.add(groupSuffix, true).rules.add(glob);
+            } else {
+                unindexed.add(glob);
+            }
+        }
+    }
+
+    private static boolean isLiteral(String pattern) {
+        return pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0;
+    }
+
+    private static String literalPrefix(String pattern) {
+        int i = 0;
+        while (i < pattern.length() && pattern.charAt(i) != '*' && pattern.charAt(i) != '?') {
+            i++;
+        }
+        return pattern.substring(0, i);
+    }
+
+    private static String literalSuffix(String pattern) {
+        int i = pattern.length();
+        while (i > 0 && pattern.charAt(i - 1) != '*' && pattern.charAt(i - 1) != '?') {
+            i--;
+        }
+        return pattern.substring(i);
+    }
+
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private final List<GlobRule> rules = new ArrayList<>(1);
+
+        private TrieNode add(String key, boolean reverse) {
+            TrieNode node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(reverse ? key.length() - 1 - i : i);
+                TrieNode child = node.children.get(c);
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * Evaluates the rules of the nodes found along {@code key}, read backwards if {@code reverse}.
+         *
+         * @return The first matching rule, or null
+         */
+        private String walk(String key, boolean reverse, String coordinates) {
+            TrieNode node = this;
+            for (int i = 0; node != null; i++) {
+                String ret = node.findMatch(coordinates);
+                if (ret != null) {
+                    return ret;
+                }
+                node = i < key.length() ? node.children.get(key.charAt(reverse ? key.length() - 1 - i : i)) : null;
+            }
+            return null;
+        }
+
+        private String findMatch(String coordinates) {
+            for (GlobRule rule : rules) {
+                if (rule.matches(coordinates)) {
+                    return rule.rule;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class GlobRule {
+        private final String rule;
+        private final Pattern pattern;
+
+        private GlobRule(String rule, String groupId, String artifactId) {
+            this.rule = rule;
+            this.pattern = Pattern.compile(toRegex(groupId) + ":" + toRegex(artifactId));
+        }
+
+        private boolean matches(String coordinates) {
+            return pattern.matcher(coordinates).matches();
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder sb = new StringBuilder();
+            int start = 0;
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (i > start) {
+                        sb.append(Pattern.quote(glob.substring(start, i)));
+                    }
+                    sb.append(c == '*' ? "[^:]*" : "[^:]");
+                    start = i + 1;
+                }
+            }
+            if (start < glob.length()) {
+                sb.append(Pattern.quote(glob.substring(start)));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Writes generated files only when their content changes, and replaces them atomically,
+ * so that readers never see a partially written file, and file watchers are not
+ * triggered when nothing changed.
+ */
+final class AtomicFileWriter {
+
+    private AtomicFileWriter() {
+        super();
+    }
+
+    /**
+     * Writes {@code content} to {@code target}, if {@code target} does not already have this content.
+     * Content is first written to a temporary file in the same directory, which is then moved to {@code target}.
+     *
+     * @param target The file to write
+     * @param content The expected file content
+     * @return {@code true} if the file has been written, {@code false} if it was already up to date
+     * @throws IOException If file can not be read or written
+     */
+    static boolean writeIfChanged(File target, byte[] content) throws IOException {
+        Path targetPath = target.toPath();
+        if (target.isFile() && target.length() == content.length
+                && Arrays.equals(Files.readAllBytes(targetPath), content)) {
+            return false;
+        }
+        File directory = target.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        Path temp = Files.createTempFile(directory.toPath(), "." + target.getName(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a temporary file next to {@code target}, to be given to {@link #moveIfChanged(Path, File)}.
+     */
+    static Path createTempFile(File target) throws IOException {
+        File directory = target.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        return Files.createTempFile(directory.toPath(), "." + target.getName(), ".tmp");
+    }
+
+    /**
+     * Moves {@code temp} to {@code target}, if {@code target} does not already have the same content.
+     * {@code temp} is deleted in any case.
+     *
+     * @return {@code true} if the file has been written, {@code false} if it was already up to date
+     * @throws IOException If files can not be read or moved
+     */
+    static boolean moveIfChanged(Path temp, File target) throws IOException {
+        Path targetPath = target.toPath();
+        try {
+            if (target.isFile() && target.length() == Files.size(temp) && sameContent(temp, targetPath)) {
+                return false;
+            }
+            try {
+                Files.move(temp, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean sameContent(Path p1, Path p2) throws IOException {
+        byte[] b1 = new byte[8192];
+        byte[] b2 = new byte[8192];
+        try (InputStream is1 = Files.newInputStream(p1); InputStream is2 = Files.newInputStream(p2)) {
+            while (true) {
+                int read = readFully(is1, b1);
+                if (read != readFully(is2, b2)) {
+                    return false;
+                }
+                if (read == 0) {
+                    return true;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (b1[i] != b2[i]) {
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int readFully(InputStream is, byte[] buffer) throws IOException {
+        int ret = 0;
+        while (ret < buffer.length) {
+            int read = is.read(buffer, ret, buffer.length - ret);
+            if (read < 0) {
+                break;
+            }
+            ret += read;
+        }
+        return ret;
+    }
+}
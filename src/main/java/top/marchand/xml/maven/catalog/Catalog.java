@@ -16,12 +16,11 @@
 package top.marchand.xml.maven.catalog;
 
 import javanet.staxutils.IndentingXMLStreamWriter;
-import net.sf.saxon.Configuration;
-import net.sf.saxon.s9api.*;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.artifact.versioning.OverConstrainedVersionException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.*;
@@ -30,22 +29,36 @@ import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
 import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
 import org.apache.maven.shared.dependency.graph.DependencyNode;
 import org.apache.maven.shared.dependency.graph.traversal.DependencyNodeVisitor;
+import top.marchand.xml.maven.catalog.index.CatalogIndexWriter;
+import top.marchand.xml.maven.catalog.index.EntryType;
+import top.marchand.xml.maven.catalog.index.ResourceManifestWriter;
+import top.marchand.xml.maven.catalog.model.CatalogConflictException;
 import top.marchand.xml.maven.catalog.model.CatalogModel;
 import top.marchand.xml.maven.catalog.model.RewriteSystemModel;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.Source;
-import javax.xml.transform.stream.StreamSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -54,8 +67,9 @@ import java.util.stream.Collectors;
 @Mojo(
         name = "catalog",
         defaultPhase = LifecyclePhase.PROCESS_RESOURCES,
-        requiresDependencyResolution = ResolutionScope.COMPILE)
-public class Catalog extends AbstractMojo {
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        threadSafe = true)
+public class Catalog extends AbstractMojo implements Cloneable {
 
     public static final transient String SCHEME = "dependency:/";
 
@@ -65,6 +79,12 @@ public class Catalog extends AbstractMojo {
     @Parameter(defaultValue = "${project}", readonly = true, required = true)
     public MavenProject project;
 
+    /**
+     * Current session, used to match classpath directories with reactor projects
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    public MavenSession session;
+
     /**
      * The catalog file.
      * It is always a path relative to @{@code ${project.basedir}}.
@@ -125,7 +145,8 @@ public class Catalog extends AbstractMojo {
     /**
      * List of artifacts to exclude.
      * Each artifact must be specified as {@code groupId:artifactId}.
-     * Both {@code groupId} and {@code artifactId} can be replaced by {@code *}.
+     * Both {@code groupId} and {@code artifactId} can be replaced by {@code *}, or contain
+     * {@code *} and {@code ?} wildcards, as in {@code com.acme.*:*-schemas}. {@code *:*} matches every artifact.
      * {@code excludes} and {@link #includes} are exclusives, and <strong>must not</strong> be used together.
      * <p>
      * If {@code excludes} is specified, all dependencies are used, except the ones that
@@ -139,7 +160,8 @@ public class Catalog extends AbstractMojo {
     /**
      * List of artifacts to include.
      * Each artifact must be specified as {@code groupId:artifactId}.
-     * Both {@code groupId} and {@code artifactId} can be replaced by {@code *}.
+     * Both {@code groupId} and {@code artifactId} can be replaced by {@code *}, or contain
+     * {@code *} and {@code ?} wildcards, as in {@code com.acme.*:*-schemas}. {@code *:*} matches every artifact.
      * {@code includes} and {@link #excludes} are exclusives, and <strong>must not</strong> be used together.
      * <p>
      * If {@code includes} is specified, all dependencies that match {@code includes} are used.
@@ -149,6 +171,35 @@ public class Catalog extends AbstractMojo {
     @Parameter()
     public List<String> includes;
 
+    /**
+     * If {@code true}, the dependencies of {@link #excludes excluded} artifacts are also excluded :
+     * excluded artifacts are removed from the dependency graph, with their whole subtree.
+     * {@link #includes} never remove dependencies from the graph, as an included artifact may
+     * be a dependency of an artifact that is not included.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.pruneExcluded", defaultValue = "false")
+    public boolean pruneExcluded;
+
+    /**
+     * If set, only dependencies with one of these scopes, as {@code compile} or {@code runtime},
+     * and their own dependencies, are in the catalog.
+     *
+     * @since 4.1.0
+     */
+    @Parameter()
+    public List<String> scopes;
+
+    /**
+     * If set, only dependencies with one of these types, as {@code jar}, and their own dependencies,
+     * are in the catalog.
+     *
+     * @since 4.1.0
+     */
+    @Parameter()
+    public List<String> types;
+
     /**
      * Allows to add {@code <delegatePublic />} entries to generated catalog.
      * Each entry should be as :
@@ -204,129 +255,674 @@ public class Catalog extends AbstractMojo {
     @Parameter(defaultValue = "false")
     public boolean generateOxygenCatalog;
 
+    /**
+     * If {@code true}, the inputs of the catalog generation (resolved artifacts,
+     * classpath and configuration) are fingerprinted, and the generation is skipped
+     * when they have not changed since the last build. Catalog files are then left untouched.
+     * With {@link #generateManifest}, the {@link #xmlResources} of classpath directories are fingerprinted too.
+     * The fingerprint is stored in {@code ${project.build.directory}/catalogBuilder/}.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.incremental", defaultValue = "false")
+    public boolean incremental;
+
+    /**
+     * If {@code true}, durations of the generation phases and counters are written as JSON to
+     * {@code ${project.build.directory}/catalogBuilder/<catalogFileName>.metrics.json}.
+     * The same figures are logged with the {@code METRICS} {@link #logReasons log reason}.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.metricsReport", defaultValue = "false")
+    public boolean metricsReport;
+
+    /**
+     * What to do when two dependencies produce entries with the same {@code uriStartString} and
+     * different targets, for example an artifact that is both a dependency and embedded in
+     * a {@code jar-with-dependencies}. Entries with the same start string and target are always written once.
+     * <ul>
+     *   <li>{@code FIRST_WINS} : the first entry, in dependency tree order, is kept ;</li>
+     *   <li>{@code NEAREST_WINS} : the entry of the dependency nearest to the project is kept ;</li>
+     *   <li>{@code FAIL} : build fails.</li>
+     * </ul>
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.conflictPolicy", defaultValue = "FIRST_WINS")
+    public CatalogModel.ConflictPolicy conflictPolicy;
+
+    /**
+     * If {@code true}, the catalog entries are also written to a binary index, next to the catalog
+     * file, with the {@code .idx} extension. It can be memory-mapped and searched without parsing,
+     * with {@link top.marchand.xml.maven.catalog.index.CatalogIndex}.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.generateIndex", defaultValue = "false")
+    public boolean generateIndex;
+
+    /**
+     * If {@code true}, a manifest of the {@link #xmlResources} of each cataloged jar or directory is written
+     * next to the catalog file, with the {@code .manifest} extension. It tells whether a {@code dependency:/}
+     * URI points to an existing resource without opening jars, with
+     * {@link top.marchand.xml.maven.catalog.index.ResourceManifest}. Jars are listed in parallel, and their
+     * listing is cached in {@code ${project.build.directory}/catalogBuilder/resources/}.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.generateManifest", defaultValue = "false")
+    public boolean generateManifest;
+
+    /**
+     * If {@code true}, resources of dependency jars that match {@link #xmlResources} are extracted to
+     * {@code ${project.build.directory}/catalog-resources/<groupId>/<artifactId>/<version>/<artifactId>-<version>[-<classifier>].<type>/},
+     * and catalog entries rewrite to these {@code file:} directories instead of {@code jar:file:} URLs.
+     * A jar is hashed only when its size or modification time change, and extracted again only when its content changes.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.extractResources", defaultValue = "false")
+    public boolean extractResources;
+
+    /**
+     * Globs of the jar entries that are XML resources, as {@code **}{@code /*.xsl}.
+     * {@code **} matches any number of directories. Used by {@link #extractResources} and
+     * {@link #skipJarsWithoutResources}. Defaults to XSLT, XML Schema, RelaxNG,
+     * Schematron, DTD, XProc, XQuery and XML files, outside of {@code META-INF/}.
+     * {@code META-INF/maven/}, where Maven-built jars carry their pom.xml, is always excluded.
+     *
+     * @since 4.1.0
+     */
+    @Parameter()
+    public List<String> xmlResources;
+
+    /**
+     * If {@code true}, no entry is generated for dependency jars that do not contain any {@link #xmlResources}.
+     * Jars of the classpath are inspected in parallel, and results are cached in
+     * {@code ${project.build.directory}/catalogBuilder/}, by jar path, size and modification time.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.skipJarsWithoutResources", defaultValue = "false")
+    public boolean skipJarsWithoutResources;
+
+    /**
+     * Maximum number of threads that inspect or list jars, when {@link #skipJarsWithoutResources}
+     * or {@link #generateManifest} is set.
+     * {@code 0} means the number of available processors.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.inspectionThreads", defaultValue = "0")
+    public int inspectionThreads;
+
+    /**
+     * If {@code true}, catalog entries are written as dependencies are visited, instead of being
+     * collected first, so that memory does not grow with the dependency graph. With
+     * {@link #streamDeduplication}, entries whose prefix has already been written are dropped, as
+     * {@code FIRST_WINS} does ; otherwise they are written, and catalog resolvers use the first one.
+     * <p>
+     * Streaming is not possible, and the whole catalog is built in memory, when {@link #conflictPolicy}
+     * is not {@code FIRST_WINS}, or with {@link #generateIndex} or {@link #generateManifest}.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.stream", defaultValue = "false")
+    public boolean streamCatalog;
+
+    /**
+     * When streaming the catalog, drops entries whose prefix has already been written.
+     * Only a 64-bit hash of each prefix is kept.
+     *
+     * @since 4.1.0
+     */
+    @Parameter(property = "catalog.streamDeduplication", defaultValue = "true")
+    public boolean streamDeduplication = true;
+
     @Component(hint = "default")
     private DependencyGraphBuilder dependencyGraphBuilder;
 
     @Parameter
     private ChmLogger.LogReason[] logReasons;
 
-    private DependencyNode rootNode;
-
-    private ChmLogger chmLogger;
-
-    private HashMap<File, MyArtifact> dependencyDirs;
-    private Processor proc;
-    private DocumentBuilder builder;
-    private XPathCompiler xpathCompiler;
+    /**
+     * Where resources are extracted, when shared by several modules. Defaults to {@code target/catalog-resources}.
+     */
+    File resourcesDirectory;
 
     @Override
     public void execute() throws MojoExecutionException {
-        dependencyDirs = new HashMap<>();
-        proc = new Processor(Configuration.newConfiguration());
-        builder = proc.newDocumentBuilder();
-        xpathCompiler = proc.newXPathCompiler();
-        chmLogger = new ChmLogger(getLog());
-        for (ChmLogger.LogReason reason : logReasons) {
-            chmLogger.enableReason(reason, true);
-        }
+        generate(null);
+    }
+
+    /**
+     * Generates the catalog of {@link #project}.
+     *
+     * @param shared Caches shared with the generations of other modules, or null
+     * @return The catalog entries, or null if catalog is up to date or has been streamed
+     * @throws MojoExecutionException If generation fails
+     */
+    CatalogModel generate(SharedResources shared) throws MojoExecutionException {
+        final ChmLogger chmLogger = newChmLogger();
         chmLogger.log(
                 ChmLogger.LogReason.PARAMETERS,
                 ChmLogger.LogLevel.INFO,
-                "catalogFile: " + catalogFileName
+                () -> "catalogFile: " + catalogFileName
         );
         final List<String> classpaths;
         classpaths = new ArrayList<>();
+        CatalogModel ret = null;
         try {
+            long start = System.nanoTime();
             for (Object i : project.getCompileClasspathElements()) {
                 classpaths.add(i.toString());
             }
-            rootNode = dependencyGraphBuilder.buildDependencyGraph(project, buildArtifactFilter());
-            final CatalogModel catalog = new CatalogModel();
-            DependencyNodeVisitor visitor = new DependencyNodeVisitor() {
-                @Override
-                public boolean visit(DependencyNode dn) {
-                    chmLogger.log(
-                            ChmLogger.LogReason.VISITING,
-                            ChmLogger.LogLevel.INFO,
-                            LOG_PREFIX + "Visiting " + dn.toNodeString());
-                    if (shouldProcessDependency(dn)) {
-                        processDependency(dn, classpaths, catalog);
-                    }
-                    return true;
+            final ExecutionContext ctx = new ExecutionContext(
+                    chmLogger,
+                    classpaths,
+                    getReactorProjects(),
+                    ArtifactMatcher.compile(includes),
+                    ArtifactMatcher.compile(excludes));
+            final ExecutionMetrics metrics = ctx.getMetrics();
+            metrics.stop(ExecutionMetrics.Phase.CLASSPATH, start);
+            ResourceGlobs resourceGlobs = new ResourceGlobs(xmlResources);
+            if (shared != null) {
+                ctx.setShared(shared);
+                ctx.setResourceExtractor(shared.getResourceExtractor());
+            } else if (extractResources) {
+                ctx.setResourceExtractor(new ResourceExtractor(getResourcesDirectory(), resourceGlobs, metrics));
+            }
+            File fingerprintFile = null;
+            String fingerprint = null;
+            if (incremental) {
+                start = metrics.start();
+                fingerprintFile = getFingerprintFile();
+                fingerprint = computeFingerprint(ctx, classpaths);
+                boolean upToDate = isUpToDate(fingerprintFile, fingerprint);
+                metrics.stop(ExecutionMetrics.Phase.FINGERPRINT, start);
+                if (upToDate) {
+                    getLog().info(LOG_PREFIX + "Catalog is up to date");
+                    reportMetrics(ctx, true);
+                    return null;
                 }
-
-                @Override
-                public boolean endVisit(DependencyNode dn) {
-                    return true;
+            }
+            if (skipJarsWithoutResources) {
+                start = metrics.start();
+                JarInspector inspector = shared != null ? shared.getJarInspector() : null;
+                if (inspector == null) {
+                    inspector = newJarInspector(resourceGlobs, metrics);
                 }
-            };
-            rootNode.accept(visitor);
-            writeCatalog(catalog);
-            getLog().debug(LOG_PREFIX + catalog.toString());
-            if (generateOxygenCatalog) {
-                writeOxygenCatalog();
-            }
-        } catch (XMLStreamException | IOException | DependencyGraphBuilderException | DependencyResolutionRequiredException | SaxonApiException ex) {
+                inspector.inspectAll(classpaths, getInspectionThreads());
+                ctx.setJarInspector(inspector);
+                metrics.stop(ExecutionMetrics.Phase.JAR_INSPECTION, start);
+            }
+            ctx.setAncestry(new DependencyAncestry(
+                    ACCEPTABLE_JAR_WITH_DEPENDENCIES_CLASSIFIERS,
+                    dn -> getFirstJarFile(ctx, dn)));
+            start = metrics.start();
+            final GraphFilter graphFilter = buildGraphFilter(ctx);
+            DependencyNode rootNode = dependencyGraphBuilder.buildDependencyGraph(
+                    project,
+                    graphFilter.isEmpty() ? null : graphFilter);
+            metrics.stop(ExecutionMetrics.Phase.DEPENDENCY_GRAPH, start);
+            final CatalogModel catalog = isStreaming(chmLogger) ? null : new CatalogModel(conflictPolicy);
+            DependencyNodeVisitor visitor = newVisitor(ctx, graphFilter, catalog);
+            if (catalog == null) {
+                streamCatalog(ctx, rootNode, visitor);
+            } else {
+                start = metrics.start();
+                rootNode.accept(visitor);
+                metrics.stop(ExecutionMetrics.Phase.TRAVERSAL, start);
+                writeOutputs(ctx, catalog, resourceGlobs);
+                generated(ctx, rootNode, graphFilter, resourceGlobs);
+            }
+            if (ctx.getJarInspector() != null && shared == null) {
+                ctx.getJarInspector().store();
+            }
+            if (fingerprint != null) {
+                Fingerprint.store(fingerprintFile, fingerprint);
+            }
+            reportMetrics(ctx, false);
+            ret = catalog;
+        } catch (XMLStreamException | IOException | DependencyGraphBuilderException | DependencyResolutionRequiredException ex) {
             getLog().error(LOG_PREFIX + ex.getMessage(), ex);
             throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (UncheckedIOException ex) {
+            getLog().error(LOG_PREFIX + ex.getMessage(), ex);
+            throw new MojoExecutionException(ex.getMessage(), ex.getCause());
+        } catch (CatalogConflictException ex) {
+            throw new MojoExecutionException(LOG_PREFIX + ex.getMessage(), ex);
         }
         chmLogger.log(
                 ChmLogger.LogReason.CLASSPATH,
                 ChmLogger.LogLevel.INFO,
-                LOG_PREFIX + "classpaths=" + classpaths);
+                () -> LOG_PREFIX + "classpaths=" + classpaths);
+        return ret;
+    }
+
+    /**
+     * @return Coordinates of reactor projects, by their absolute directory
+     */
+    Map<File, MyArtifact> getReactorProjects() {
+        return ReactorProjects.of(session);
+    }
+
+    /**
+     * @return A logger with the configured {@link #logReasons} enabled
+     */
+    ChmLogger newChmLogger() {
+        ChmLogger ret = new ChmLogger(getLog());
+        if (logReasons != null) {
+            for (ChmLogger.LogReason reason : logReasons) {
+                ret.enableReason(reason, true);
+            }
+        }
+        return ret;
     }
 
-    protected boolean shouldProcessDependency(DependencyNode dn) {
+    /**
+     * @return The visitor that adds the entries of visited nodes to {@code catalog}, or streams them if it is null
+     */
+    private DependencyNodeVisitor newVisitor(ExecutionContext ctx, GraphFilter graphFilter, CatalogModel catalog) {
+        final ChmLogger chmLogger = ctx.getChmLogger();
+        final ExecutionMetrics metrics = ctx.getMetrics();
+        return new DependencyNodeVisitor() {
+            @Override
+            public boolean visit(DependencyNode dn) {
+                metrics.increment(ExecutionMetrics.Counter.NODES_VISITED);
+                chmLogger.log(
+                        ChmLogger.LogReason.VISITING,
+                        ChmLogger.LogLevel.INFO,
+                        () -> LOG_PREFIX + "Visiting " + dn.toNodeString());
+                if (dn.getParent() != null && !graphFilter.isEmpty()) {
+                    String reason = graphFilter.getExclusionReason(dn.getArtifact());
+                    if (reason != null) {
+                        metrics.increment(ExecutionMetrics.Counter.NODES_PRUNED);
+                        chmLogger.log(
+                                ChmLogger.LogReason.EXCLUSION,
+                                ChmLogger.LogLevel.INFO,
+                                () -> "Skipping " + dn.getArtifact() + " and its dependencies, because " + reason);
+                        return false;
+                    }
+                }
+                if (shouldProcessDependency(ctx, dn)) {
+                    processDependency(ctx, dn, catalog);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean endVisit(DependencyNode dn) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Writes the catalog, and the manifest if required.
+     */
+    private void writeOutputs(ExecutionContext ctx, CatalogModel catalog, ResourceGlobs resourceGlobs)
+            throws XMLStreamException, IOException, MojoExecutionException {
+        writeCatalog(ctx, catalog);
+        if (generateManifest) {
+            writeManifest(ctx, catalog, resourceGlobs);
+        }
+        if (getLog().isDebugEnabled()) {
+            // one line per entry : the whole model may be huge
+            for (RewriteSystemModel rsm : catalog.getEntries()) {
+                getLog().debug(LOG_PREFIX + rsm);
+            }
+        }
+    }
+
+    /**
+     * Called once a catalog has been built and written, with the state of this generation. Does nothing.
+     */
+    void generated(ExecutionContext ctx, DependencyNode rootNode, GraphFilter graphFilter, ResourceGlobs resourceGlobs) {
+    }
+
+    /**
+     * Visits {@code rootNode} again, and writes the catalog.
+     * Dependencies already resolved in {@code ctx} are not resolved again.
+     *
+     * @return The catalog entries
+     */
+    CatalogModel regenerate(ExecutionContext ctx, DependencyNode rootNode, GraphFilter graphFilter, ResourceGlobs resourceGlobs)
+            throws MojoExecutionException {
+        CatalogModel catalog = new CatalogModel(conflictPolicy);
+        try {
+            rootNode.accept(newVisitor(ctx, graphFilter, catalog));
+            writeOutputs(ctx, catalog, resourceGlobs);
+        } catch (XMLStreamException | IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (UncheckedIOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex.getCause());
+        } catch (CatalogConflictException ex) {
+            throw new MojoExecutionException(LOG_PREFIX + ex.getMessage(), ex);
+        }
+        return catalog;
+    }
+
+    /**
+     * @return A jar inspector, with its cache loaded
+     */
+    JarInspector newJarInspector(ResourceGlobs resourceGlobs, ExecutionMetrics metrics) {
+        JarInspector ret = new JarInspector(
+                resourceGlobs,
+                new File(project.getBuild().getDirectory(), "catalogBuilder"),
+                metrics);
+        ret.load();
+        return ret;
+    }
+
+    /**
+     * @return A copy of this configuration, that generates the catalog of {@code module}
+     */
+    Catalog forModule(MavenProject module) {
+        try {
+            Catalog ret = (Catalog) super.clone();
+            ret.project = module;
+            return ret;
+        } catch (CloneNotSupportedException ex) {
+            // Catalog is Cloneable
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes {@code catalog} to {@link #catalogFileName}, relative to {@link #project}, with delegates,
+     * next catalogs, and Oxygen catalog and index if required.
+     */
+    void writeCatalog(CatalogModel catalog) throws MojoExecutionException {
+        ExecutionContext ctx = new ExecutionContext(
+                new ChmLogger(getLog()),
+                Collections.<String>emptyList(),
+                Collections.<File, MyArtifact>emptyMap(),
+                ArtifactMatcher.compile(null),
+                ArtifactMatcher.compile(null));
+        try {
+            writeCatalog(ctx, catalog);
+        } catch (XMLStreamException | IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Logs the metrics summary line, and writes the JSON report if {@link #metricsReport} is set.
+     */
+    private void reportMetrics(ExecutionContext ctx, boolean upToDate) throws IOException {
+        ExecutionMetrics metrics = ctx.getMetrics();
+        ctx.getChmLogger().log(
+                ChmLogger.LogReason.METRICS,
+                ChmLogger.LogLevel.INFO,
+                () -> LOG_PREFIX + metrics.toSummary());
+        if (metricsReport) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("groupId", project.getGroupId());
+            properties.put("artifactId", project.getArtifactId());
+            properties.put("version", project.getVersion());
+            properties.put("catalogFile", getCatalogFile().getAbsolutePath());
+            properties.put("upToDate", upToDate);
+            File reportFile = getMetricsReportFile();
+            AtomicFileWriter.writeIfChanged(reportFile, metrics.toJson(properties).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The JSON metrics report, one per catalog file, next to the fingerprint.
+     */
+    private File getMetricsReportFile() {
+        String name = catalogFileName.replaceAll("[/\\\\:]", "_");
+        return new File(new File(project.getBuild().getDirectory(), "catalogBuilder"), name + ".metrics.json");
+    }
+
+    /**
+     * The fingerprint file, one per catalog file, so that several executions
+     * in the same project do not share their fingerprint.
+     */
+    private File getFingerprintFile() {
+        String name = catalogFileName.replaceAll("[/\\\\:]", "_");
+        return new File(new File(project.getBuild().getDirectory(), "catalogBuilder"), name + ".fingerprint");
+    }
+
+    /**
+     * Computes a digest of everything that may change the generated catalogs.
+     *
+     * @param ctx The execution context
+     * @param classpaths The compile classpath elements, also indexed in {@code ctx}
+     * @return The fingerprint
+     * @throws IOException If a classpath directory can not be listed
+     */
+    String computeFingerprint(ExecutionContext ctx, List<String> classpaths) throws IOException {
+        Fingerprint fp = new Fingerprint()
+                .add("plugin", getClass().getPackage().getImplementationVersion())
+                .add("project", project.getArtifact())
+                .add("catalogFileName", catalogFileName)
+                .add("uriPatterns", uriPatterns)
+                .add("generates", generates)
+                .add("rewriteToProtocol", rewriteToProtocol)
+                .add("includeCurrentArtifact", includeCurrentArtifact)
+                .add("includes", includes)
+                .add("excludes", excludes)
+                .add("pruneExcluded", pruneExcluded)
+                .add("scopes", scopes)
+                .add("types", types)
+                .add("nextCatalogs", nextCatalogs)
+                .add("removeDoctype", removeDoctype)
+                .add("generateOxygenCatalog", generateOxygenCatalog)
+                .add("conflictPolicy", conflictPolicy)
+                .add("generateIndex", generateIndex)
+                .add("extractResources", extractResources)
+                .add("xmlResources", xmlResources)
+                .add("skipJarsWithoutResources", skipJarsWithoutResources)
+                .add("generateManifest", generateManifest)
+                .add("streamCatalog", streamCatalog)
+                .add("streamDeduplication", streamDeduplication);
+        addDelegates(fp, "delegatesPublic", delegatesPublic);
+        addDelegates(fp, "delegatesSystem", delegatesSystem);
+        addDelegates(fp, "delegatesURI", delegatesURI);
+        for (Artifact artifact : project.getArtifacts()) {
+            fp.add("artifact", artifact.getId())
+                    .add("baseVersion", artifact.getBaseVersion())
+                    .add("trail", artifact.getDependencyTrail())
+                    .addFile("file", artifact.getFile());
+        }
+        fp.add("classpaths", classpaths);
+        ClasspathIndex classpathIndex = ctx.getClasspathIndex();
+        for (int position : classpathIndex.getProjectOutputs()) {
+            // project outputs are matched through their pom.xml
+            File dir = new File(classpathIndex.get(position)).getParentFile().getParentFile();
+            fp.addFile("pom", new File(dir, "pom.xml"));
+        }
+        if (generateManifest) {
+            // the manifest lists the resources of directories, as target/classes, that are not in the artifacts
+            ResourceGlobs resourceGlobs = new ResourceGlobs(xmlResources);
+            for (String classpath : classpaths) {
+                File dir = new File(classpath);
+                if (dir.isDirectory()) {
+                    fp.addDirectory("directory", dir, resourceGlobs::matches);
+                }
+            }
+        }
+        return fp.toHex();
+    }
+
+    private static void addDelegates(Fingerprint fp, String name, List<DelegateEntry> delegates) {
+        if (delegates == null) {
+            fp.add(name, (Object) null);
+        } else {
+            fp.add(name, delegates.size());
+            for (DelegateEntry de : delegates) {
+                fp.add("startString", de.getStartString()).add("catalog", de.getCatalog());
+            }
+        }
+    }
+
+    private boolean isUpToDate(File fingerprintFile, String fingerprint) {
+        if (!Fingerprint.isStored(fingerprintFile, fingerprint)) {
+            return false;
+        }
+        // generated files may have been deleted since
+        return getCatalogFile().isFile() && (!generateOxygenCatalog || getOxygenCatalogFile().isFile())
+                && (!generateIndex || getIndexFile().isFile())
+                && (!generateManifest || getManifestFile().isFile())
+                && (!extractResources || getResourcesDirectory().isDirectory());
+    }
+
+    private File getCatalogFile() {
+        return new File(project.getBasedir(), catalogFileName);
+    }
+
+    private File getOxygenCatalogFile() {
+        File sourceFile = getCatalogFile();
+        String oxygenCatalogFileName = sourceFile.getName();
+        int lastIndex = oxygenCatalogFileName.lastIndexOf(".");
+        oxygenCatalogFileName = oxygenCatalogFileName.substring(0, lastIndex) + "-oxygen" + oxygenCatalogFileName.substring(lastIndex);
+        return new File(sourceFile.getParentFile(), oxygenCatalogFileName);
+    }
+
+    File getResourcesDirectory() {
+        if (resourcesDirectory != null) {
+            return resourcesDirectory;
+        }
+        return new File(project.getBuild().getDirectory(), "catalog-resources");
+    }
+
+    /**
+     * The resource manifest file : catalog file, with {@code .manifest} extension.
+     */
+    private File getManifestFile() {
+        File sourceFile = getCatalogFile();
+        String manifestFileName = sourceFile.getName();
+        int lastIndex = manifestFileName.lastIndexOf(".");
+        manifestFileName = (lastIndex > 0 ? manifestFileName.substring(0, lastIndex) : manifestFileName) + ".manifest";
+        return new File(sourceFile.getParentFile(), manifestFileName);
+    }
+
+    int getInspectionThreads() {
+        return inspectionThreads > 0 ? inspectionThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The binary index file : catalog file, with {@code .idx} extension.
+     */
+    private File getIndexFile() {
+        File sourceFile = getCatalogFile();
+        String indexFileName = sourceFile.getName();
+        int lastIndex = indexFileName.lastIndexOf(".");
+        indexFileName = (lastIndex > 0 ? indexFileName.substring(0, lastIndex) : indexFileName) + ".idx";
+        return new File(sourceFile.getParentFile(), indexFileName);
+    }
+
+    boolean shouldProcessDependency(ExecutionContext ctx, DependencyNode dn) {
+        ChmLogger chmLogger = ctx.getChmLogger();
         Artifact artifact = dn.getArtifact();
         if (artifact.equals(project.getArtifact())) {
             chmLogger.log(
                     ChmLogger.LogReason.EXCLUSION,
                     ChmLogger.LogLevel.INFO,
-                    "Current artifact is " + (includeCurrentArtifact ? "" : "not ") + "excluded");
+                    () -> "Current artifact is " + (includeCurrentArtifact ? "" : "not ") + "excluded");
             return includeCurrentArtifact;
         }
         String groupId = artifact.getGroupId();
         String artifactId = artifact.getArtifactId();
 
-        String[] patterns = {groupId + ":" + artifactId, "*:" + artifactId, groupId + ":*"};
-        if ((includes == null || includes.isEmpty()) && (excludes == null || excludes.isEmpty())) {
-            return true;
-        }
-        if (includes != null && !includes.isEmpty()) {
-            for (String pattern : patterns) {
-                if (includes.contains(pattern)) {
-                    return true;
-                }
+        ArtifactMatcher includesMatcher = ctx.getIncludes();
+        ArtifactMatcher excludesMatcher = ctx.getExcludes();
+        if (!includesMatcher.isEmpty()) {
+            if (includesMatcher.matches(groupId, artifactId)) {
+                return true;
             }
             chmLogger.log(
                     ChmLogger.LogReason.EXCLUSION,
                     ChmLogger.LogLevel.INFO,
-                    "Excluding " + artifact.toString() + " because includes is not empty and no pattern matches it"
+                    () -> "Excluding " + artifact.toString() + " because includes is not empty and no pattern matches it"
             );
             return false;
         } else {
-            for (String pattern : patterns) {
-                if (excludes.contains(pattern)) {
-                    chmLogger.log(
-                            ChmLogger.LogReason.EXCLUSION,
-                            ChmLogger.LogLevel.INFO,
-                            "excluding " + artifact.toString() + " because it is excluded by " + pattern
-                    );
-                    return false;
-                }
+            String pattern = excludesMatcher.findMatch(groupId, artifactId);
+            if (pattern != null) {
+                chmLogger.log(
+                        ChmLogger.LogReason.EXCLUSION,
+                        ChmLogger.LogLevel.INFO,
+                        () -> "excluding " + artifact.toString() + " because it is excluded by " + pattern
+                );
+                return false;
             }
             return true;
         }
     }
 
-    private void processDependency(DependencyNode dn, List<String> classpaths, CatalogModel catalog) {
+    private void processDependency(ExecutionContext ctx, DependencyNode dn, CatalogModel catalog) {
+        ctx.getMetrics().increment(ExecutionMetrics.Counter.DEPENDENCIES_PROCESSED);
+        Map<String, List<RewriteSystemModel>> resolvedEntries = ctx.getResolvedEntries();
+        String key = getResolutionKey(ctx, dn);
+        List<RewriteSystemModel> entries = key != null ? resolvedEntries.get(key) : null;
+        if (entries != null) {
+            ctx.getMetrics().increment(ExecutionMetrics.Counter.DEPENDENCIES_REUSED);
+            ctx.getChmLogger().log(
+                    ChmLogger.LogReason.DEPENDENCY,
+                    ChmLogger.LogLevel.INFO,
+                    () -> "\t\t" + dn.getArtifact() + " is already resolved");
+        } else {
+            entries = resolveEntries(ctx, dn, key);
+            if (key != null && ctx.getCatalogWriter() == null) {
+                resolvedEntries.put(key, entries);
+            } else if (key != null && ctx.getStreamedPrefixes() != null) {
+                // when streamed and deduplicated, entries of a later occurrence would be dropped
+                resolvedEntries.put(key, Collections.<RewriteSystemModel>emptyList());
+            }
+            // when streamed without deduplication, entries are written and not kept
+        }
+        for (RewriteSystemModel rsm : entries) {
+            addEntry(ctx, catalog, rsm, dn);
+        }
+    }
+
+    /**
+     * Nodes with the same key produce the same entries :
+     * {@code groupId:artifactId:version:classifier}, and for nodes embedded in a jar-with-dependencies,
+     * the jar they are found in, which depends on their ancestors.
+     *
+     * @return The key, or null if it can not be computed
+     */
+    private String getResolutionKey(ExecutionContext ctx, DependencyNode dn) {
+        Artifact artifact = dn.getArtifact();
+        StringBuilder sb = new StringBuilder()
+                .append(artifact.getGroupId()).append(':')
+                .append(artifact.getArtifactId()).append(':')
+                .append(artifact.getVersion()).append(':')
+                .append(artifact.getClassifier() != null ? artifact.getClassifier() : "");
+        DependencyAncestry ancestry = ctx.getAncestry();
+        if ((rewriteToProtocol == null || rewriteToProtocol.length() <= 1) && ancestry.isInJarWithDependencies(dn)) {
+            try {
+                sb.append('!').append(ancestry.getJarFile(dn));
+            } catch (OverConstrainedVersionException ex) {
+                // not cached, resolveEntries reports it
+                return null;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resolves {@code dn} to the jar or directory that holds it. When modules are aggregated, the entries
+     * of another module are reused if it resolved {@code dn} to the same jar or directory.
+     *
+     * @param key The resolution key of {@code dn}, or null
+     * @return The entries for {@code dn}, that are not yet added to catalog
+     */
+    private List<RewriteSystemModel> resolveEntries(ExecutionContext ctx, DependencyNode dn, String key) {
+        List<RewriteSystemModel> ret = new ArrayList<>(uriPatterns.size());
+        ChmLogger chmLogger = ctx.getChmLogger();
         String groupId = dn.getArtifact().getGroupId();
         String artifactId = dn.getArtifact().getArtifactId();
         String version = dn.getArtifact().getVersion();
         chmLogger.log(
                 ChmLogger.LogReason.DEPENDENCY,
                 ChmLogger.LogLevel.INFO,
-                String.format("Processing dependency [%s:%s:%s]", groupId, artifactId, version)
+                () -> String.format("Processing dependency [%s:%s:%s]", groupId, artifactId, version)
         );
         if (rewriteToProtocol != null && rewriteToProtocol.length() > 1) {
             for (String pattern : uriPatterns) {
@@ -334,60 +930,80 @@ public class Catalog extends AbstractMojo {
                         buildPattern(pattern, groupId, artifactId, version),
                         rewriteToProtocol,
                         groupId, artifactId, version);
-                catalog.getEntries().add(rsm);
+                ret.add(rsm);
             }
         } else {
+            SharedResources shared = key != null ? ctx.getShared() : null;
             try {
                 String jarFileName = null;
-                if (isInJarWithDependencies(dn)) {
-                    getLog().debug(LOG_PREFIX + artifactId + " is in a jar-with-dependencies");
-                    jarFileName = getJarFileForJarWithDependency(dn, classpaths);
+                Artifact jarArtifact = dn.getArtifact();
+                DependencyAncestry ancestry = ctx.getAncestry();
+                boolean debug = getLog().isDebugEnabled();
+                if (ancestry.isInJarWithDependencies(dn)) {
+                    if (debug) {
+                        getLog().debug(LOG_PREFIX + artifactId + " is in a jar-with-dependencies "
+                                + ancestry.getJarWithDependencies(dn).getArtifact());
+                    }
+                    jarFileName = ancestry.getJarFile(dn);
+                    jarArtifact = ancestry.getJarWithDependencies(dn).getArtifact();
                 } else {
-                    getLog().debug(LOG_PREFIX + artifactId + " is in a jar");
+                    if (debug) {
+                        getLog().debug(LOG_PREFIX + artifactId + " is in a jar");
+                    }
                     String artifactPath = constructArtifactPath(dn.getArtifact());
-                    getLog().debug(LOG_PREFIX + "artifactPath= " + artifactPath);
-                    for (String classpath : classpaths) {
-                        chmLogger.log(
-                                ChmLogger.LogReason.DEPENDENCY,
-                                ChmLogger.LogLevel.INFO,
-                                "\t comparing to classpath " + classpath
-                        );
-                        if (classpath.contains(artifactPath)) {
+                    if (debug) {
+                        getLog().debug(LOG_PREFIX + "artifactPath= " + artifactPath);
+                    }
+                    // last match wins, either a classpath entry that contains artifactPath,
+                    // or a project output whose pom.xml declares this artifact (issue #2)
+                    ClasspathIndex classpathIndex = ctx.getClasspathIndex();
+                    ctx.getMetrics().increment(ExecutionMetrics.Counter.CLASSPATH_LOOKUPS);
+                    int position = Math.max(
+                            classpathIndex.lastContaining(artifactPath),
+                            lastProjectOutputMatching(ctx, groupId, artifactId, version));
+                    if (position >= 0) {
+                        jarFileName = classpathIndex.get(position);
+                        if (chmLogger.isEnabled(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO)) {
                             chmLogger.log(
                                     ChmLogger.LogReason.DEPENDENCY,
                                     ChmLogger.LogLevel.INFO,
-                                    "\t\t" + classpath + " contains " + artifactPath
+                                    "\t\t" + jarFileName + " matches " + artifactPath
                             );
-                            jarFileName = classpath;
-                        } else if (classpath.endsWith("target/classes") || classpath.matches(".*[/\\\\]target[/\\\\][^/\\\\]+\\.jar")) {
-                            // issue #2
-                            getLog().debug("found classpath : " + classpath);
-                            // dir should be the project basedir
-                            File dir = new File(classpath).getParentFile().getParentFile();
-                            if (isPathMatchesDependency(dir, groupId, artifactId, version)) {
-                                chmLogger.log(
-                                        ChmLogger.LogReason.DEPENDENCY,
-                                        ChmLogger.LogLevel.INFO,
-                                        "\t\t" + dir.getAbsolutePath() + " matches artifact"
-                                );
-                                jarFileName = classpath;
-                            }
                         }
                     }
                 }
-                getLog().debug(LOG_PREFIX + artifactId + " -> " + jarFileName);
-                if (jarFileName != null) {
+                if (debug) {
+                    getLog().debug(LOG_PREFIX + artifactId + " -> " + jarFileName);
+                }
+                SharedResources.Resolution resolution = shared != null ? shared.getResolution(key) : null;
+                if (resolution != null && resolution.location.equals(jarFileName)) {
+                    ctx.getMetrics().increment(ExecutionMetrics.Counter.DEPENDENCIES_SHARED);
+                    return resolution.entries;
+                }
+                if (jarFileName != null && !hasResources(ctx, jarFileName)) {
+                    if (chmLogger.isEnabled(ChmLogger.LogReason.EXCLUSION, ChmLogger.LogLevel.INFO)) {
+                        chmLogger.log(
+                                ChmLogger.LogReason.EXCLUSION,
+                                ChmLogger.LogLevel.INFO,
+                                "\t\tNo XML resource in " + jarFileName
+                        );
+                    }
+                    ctx.getMetrics().increment(ExecutionMetrics.Counter.SKIPPED_WITHOUT_RESOURCES);
+                } else if (jarFileName != null) {
+                    String rewritePrefix;
+                    if (!jarFileName.endsWith(".jar")) {
+                        rewritePrefix = new File(jarFileName).toURI().toString();
+                    } else if (ctx.getResourceExtractor() != null) {
+                        rewritePrefix = extractResources(ctx, new File(jarFileName), jarArtifact).toURI().toString();
+                    } else {
+                        rewritePrefix = "jar:file:" + jarFileName + "!/";
+                    }
                     for (String pattern : uriPatterns) {
-                        RewriteSystemModel rsm = (jarFileName.endsWith(".jar")) ?
-                                new RewriteSystemModel(
-                                        buildPattern(pattern, groupId, artifactId, version),
-                                        "jar:file:" + jarFileName + "!/",
-                                        groupId, artifactId, version) :
-                                new RewriteSystemModel(
-                                        buildPattern(pattern, groupId, artifactId, version),
-                                        new File(jarFileName).toURI().toString(),
-                                        groupId, artifactId, version);
-                        catalog.getEntries().add(rsm);
+                        RewriteSystemModel rsm = new RewriteSystemModel(
+                                buildPattern(pattern, groupId, artifactId, version),
+                                rewritePrefix,
+                                groupId, artifactId, version);
+                        ret.add(rsm);
                     }
                 } else {
                     chmLogger.log(
@@ -396,10 +1012,81 @@ public class Catalog extends AbstractMojo {
                             "\t\tNo classpath found for artifact"
                     );
                 }
+                if (shared != null && jarFileName != null) {
+                    shared.putResolution(key, new SharedResources.Resolution(jarFileName, ret));
+                }
             } catch (OverConstrainedVersionException ex) {
                 getLog().error(LOG_PREFIX + ex.getMessage(), ex);
             }
         }
+        return ret;
+    }
+
+    /**
+     * @return {@code false} if {@code jarFileName} is a jar without XML resources, and these jars are skipped
+     */
+    private boolean hasResources(ExecutionContext ctx, String jarFileName) {
+        if (ctx.getJarInspector() == null || !jarFileName.endsWith(".jar")) {
+            return true;
+        }
+        try {
+            return ctx.getJarInspector().hasResources(jarFileName);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to inspect " + jarFileName, ex);
+        }
+    }
+
+    /**
+     * Extracts resources of {@code jar}, which is the file of {@code artifact}.
+     * Dependencies embedded in a jar-with-dependencies share the directory of this jar-with-dependencies.
+     */
+    private File extractResources(ExecutionContext ctx, File jar, Artifact artifact) {
+        long start = ctx.getMetrics().start();
+        try {
+            return ctx.getResourceExtractor().extract(
+                    jar,
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getVersion(),
+                    artifact.getClassifier(),
+                    artifact.getType());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to extract resources of " + jar, ex);
+        } finally {
+            ctx.getMetrics().stop(ExecutionMetrics.Phase.RESOURCE_EXTRACTION, start);
+        }
+    }
+
+    /**
+     * Adds {@code rsm} to catalog, according to {@link #conflictPolicy}.
+     */
+    private void addEntry(ExecutionContext ctx, CatalogModel catalog, RewriteSystemModel rsm, DependencyNode dn) {
+        if (ctx.getCatalogWriter() != null) {
+            streamEntry(ctx, rsm);
+            return;
+        }
+        int depth = 0;
+        for (DependencyNode parent = dn.getParent(); parent != null; parent = parent.getParent()) {
+            depth++;
+        }
+        RewriteSystemModel existing = catalog.get(rsm.getUriStartPrefix());
+        boolean added = catalog.add(rsm, depth);
+        if (existing == null) {
+            return;
+        }
+        if (!added) {
+            ctx.getMetrics().increment(ExecutionMetrics.Counter.DUPLICATE_ENTRIES);
+        }
+        if (!existing.equals(rsm)) {
+            RewriteSystemModel kept = added ? rsm : existing;
+            RewriteSystemModel dropped = added ? existing : rsm;
+            ctx.getChmLogger().log(
+                    ChmLogger.LogReason.DEPENDENCY,
+                    ChmLogger.LogLevel.INFO,
+                    () -> "\t\t" + rsm.getUriStartPrefix() + " -> " + kept.getRewritePrefix()
+                            + " wins over " + dropped.getRewritePrefix() + " (" + catalog.getConflictPolicy() + ")"
+            );
+        }
     }
 
     protected String buildPattern(String pattern, String groupId, String artifactId, String version) {
@@ -415,156 +1102,423 @@ public class Catalog extends AbstractMojo {
         return sb.toString();
     }
 
-    boolean isPathMatchesDependency(final File dir, final String groupId, final String artifactId, final String version) {
+    /**
+     * Returns the position in classpath of the last project output ({@code target/classes} or
+     * {@code target/*.jar}) whose project declares {@code groupId:artifactId:version}.
+     *
+     * @return The position in classpath, or {@code -1}
+     */
+    int lastProjectOutputMatching(final ExecutionContext ctx, final String groupId, final String artifactId, final String version) {
+        Map<List<String>, Integer> projectOutputsByArtifact = ctx.getProjectOutputsByArtifact();
+        if (projectOutputsByArtifact == null) {
+            projectOutputsByArtifact = new HashMap<>();
+            ctx.setProjectOutputsByArtifact(projectOutputsByArtifact);
+            ClasspathIndex classpathIndex = ctx.getClasspathIndex();
+            for (int position : classpathIndex.getProjectOutputs()) {
+                String classpath = classpathIndex.get(position);
+                if (getLog().isDebugEnabled()) {
+                    getLog().debug("found classpath : " + classpath);
+                }
+                // dir should be the project basedir
+                File dir = new File(classpath).getParentFile().getParentFile();
+                MyArtifact art = getArtifactForDir(ctx, dir);
+                if (art != null) {
+                    projectOutputsByArtifact.put(
+                            Arrays.asList(art.getGroupId(), art.getArtifactId(), art.getVersion()),
+                            position);
+                }
+            }
+        }
+        Integer ret = projectOutputsByArtifact.get(Arrays.asList(groupId, artifactId, version));
+        if (ret == null) {
+            ctx.getChmLogger().log(
+                    ChmLogger.LogReason.MATCHES,
+                    ChmLogger.LogLevel.INFO,
+                    () -> "no project output matches " + groupId + ":" + artifactId + ":" + version
+            );
+            return -1;
+        }
+        return ret;
+    }
+
+    MyArtifact getArtifactForDir(final ExecutionContext ctx, final File dir) {
+        ChmLogger chmLogger = ctx.getChmLogger();
+        Map<File, MyArtifact> dependencyDirs = ctx.getDependencyDirs();
         MyArtifact art = dependencyDirs.get(dir);
         if (art == null) {
-            art = loadArtifactFromDir(dir);
+            art = ctx.getReactorProjects().get(dir.getAbsoluteFile());
+        }
+        if (art == null) {
+            // not in reactor
+            art = loadArtifactFromDir(ctx, dir);
         }
         if (art != null) {
-            chmLogger.log(
-                    ChmLogger.LogReason.DEPENDENCY,
-                    ChmLogger.LogLevel.INFO,
-                    "\t\t\tart is " + art
-            );
-            dependencyDirs.put(dir, art);
-            boolean ret = groupId.equals(art.getGroupId()) && artifactId.equals(art.getArtifactId()) && version.equals(art.getVersion());
-            if (ret == false) {
+            if (chmLogger.isEnabled(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO)) {
                 chmLogger.log(
-                        ChmLogger.LogReason.MATCHES,
+                        ChmLogger.LogReason.DEPENDENCY,
                         ChmLogger.LogLevel.INFO,
-                        art.toString() + " does not match " + groupId + ":" + artifactId + ":" + version
+                        "\t\t\tart is " + art
                 );
             }
-            return ret;
+            dependencyDirs.put(dir, art);
         } else {
             chmLogger.log(
                     ChmLogger.LogReason.MATCHES,
                     ChmLogger.LogLevel.INFO,
-                    "no artifact found in dir " + dir.getAbsolutePath()
+                    () -> "no artifact found in dir " + dir.getAbsolutePath()
             );
-            return false;
         }
+        return art;
     }
 
-    MyArtifact loadArtifactFromDir(final File dir) {
-        try {
-            XdmNode pom = builder.build(new File(dir, "pom.xml"));
-            xpathCompiler.declareNamespace("mvn", "http://maven.apache.org/POM/4.0.0");
-            XPathSelector selector = xpathCompiler.compile("/mvn:project/(mvn:groupId | mvn:artifactId | mvn:version)").load();
-            selector.setContextItem(pom);
-            XdmValue ret = selector.evaluate();
-            String groupId = null, artifactId = null, version = null;
-            for (XdmSequenceIterator it = ret.iterator(); it.hasNext(); ) {
-                XdmNode node = (XdmNode) it.next();
-                switch (node.getNodeName().getLocalName()) {
-                    case "groupId":
-                        groupId = node.getStringValue();
-                        break;
-                    case "artifactId":
-                        artifactId = node.getStringValue();
-                        break;
-                    case "version":
-                        version = node.getStringValue();
+    /**
+     * Forgets the coordinates read for project directory {@code dir}, and the entries of the artifact
+     * it declared and of the one it now declares, so that they are resolved again by {@link #regenerate}.
+     * Coordinates of other reactor projects are kept.
+     *
+     * @param coordinates The coordinates of {@code dir}, as interpolated by the project builder, or null
+     *                    to read them from its {@code pom.xml}
+     * @return The number of forgotten dependencies
+     */
+    int invalidateProjectDir(final ExecutionContext ctx, final File dir, final MyArtifact coordinates) {
+        List<MyArtifact> artifacts = new ArrayList<>(2);
+        MyArtifact previous = ctx.getDependencyDirs().remove(dir);
+        if (previous != null) {
+            artifacts.add(previous);
+        }
+        File projectDir = dir.getAbsoluteFile();
+        if (coordinates != null || ctx.getReactorProjects().containsKey(projectDir)) {
+            Map<File, MyArtifact> reactorProjects = new HashMap<>(ctx.getReactorProjects());
+            if (coordinates != null) {
+                reactorProjects.put(projectDir, coordinates);
+            } else {
+                reactorProjects.remove(projectDir);
+            }
+            ctx.setReactorProjects(reactorProjects);
+        }
+        MyArtifact current = getArtifactForDir(ctx, dir);
+        if (current != null) {
+            artifacts.add(current);
+        }
+        ctx.setProjectOutputsByArtifact(null);
+        int ret = 0;
+        Iterator<String> keys = ctx.getResolvedEntries().keySet().iterator();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            for (MyArtifact artifact : artifacts) {
+                if (key.startsWith(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getVersion() + ':')) {
+                    keys.remove();
+                    ret++;
+                    break;
                 }
             }
+        }
+        return ret;
+    }
+
+    MyArtifact loadArtifactFromDir(final ExecutionContext ctx, final File dir) {
+        PomReader pomReader = ctx.getPomReader();
+        long start = ctx.getMetrics().start();
+        try {
+            PomReader.PomCoordinates pom = pomReader.read(new File(dir, "pom.xml"));
+            String groupId = pom.getGroupId(), artifactId = pom.getArtifactId(), version = pom.getVersion();
             if (version == null || groupId == null) {
-                String relativePath = "../pom.xml";
                 // case where version is in parent pom. Look for it...
-                XPathSelector selector2 = xpathCompiler.compile("/mvn:project/mvn:parent/mvn:relativePath").load();
-                selector2.setContextItem(pom);
-                XdmValue vRelativePath = selector2.evaluate();
-                if (vRelativePath.size() > 0) {
-                    getLog().debug("vRelativePath is a " + vRelativePath.getClass().getName());
-                    getLog().debug("vRelativePath is " + vRelativePath.size() + " long");
-                    getLog().debug("vRelativePath: " + vRelativePath.toString());
-                    relativePath = ((XdmNode) vRelativePath).getStringValue();
+                String relativePath = pom.getParentRelativePath() != null ? pom.getParentRelativePath() : "../pom.xml";
+                if (getLog().isDebugEnabled()) {
+                    getLog().debug("relativePath: " + relativePath);
                 }
                 File parentPomFile = new File(dir, relativePath);
                 if (parentPomFile.isDirectory()) {
                     parentPomFile = new File(parentPomFile, "pom.xml");
                 }
+                PomReader.PomCoordinates parentPom = pomReader.read(parentPomFile);
                 if (version == null) {
-                    XPathSelector versionSelector = xpathCompiler.compile("/mvn:project/mvn:version").load();
-                    versionSelector.setContextItem(builder.build(parentPomFile));
-                    version = ((XdmNode) versionSelector.evaluate()).getStringValue();
+                    version = parentPom.getVersion();
                 }
                 if (groupId == null) {
-                    XPathSelector groupIdSelector = xpathCompiler.compile("/mvn:project/mvn:groupId").load();
-                    groupIdSelector.setContextItem(builder.build(parentPomFile));
-                    groupId = ((XdmNode) groupIdSelector.evaluate()).getStringValue();
+                    groupId = parentPom.getGroupId();
                 }
             }
             MyArtifact art = new MyArtifact(groupId, artifactId, version);
-            getLog().debug(art.toString());
+            if (getLog().isDebugEnabled()) {
+                getLog().debug(art.toString());
+            }
             return art;
-        } catch (SaxonApiException ex) {
+        } catch (IOException | XMLStreamException ex) {
             getLog().error("in loadArtifactFromDir", ex);
             return null;
+        } finally {
+            ctx.getMetrics().stop(ExecutionMetrics.Phase.POM_LOADING, start);
         }
     }
 
-    private void writeOxygenCatalog() throws SaxonApiException {
-        File sourceFile = new File(project.getBasedir(), catalogFileName);
-        String oxygenCatalogFileName = sourceFile.getName();
-        int lastIndex = oxygenCatalogFileName.lastIndexOf(".");
-        oxygenCatalogFileName = oxygenCatalogFileName.substring(0, lastIndex) + "-oxygen" + oxygenCatalogFileName.substring(lastIndex);
-        File targetFile = new File(sourceFile.getParentFile(), oxygenCatalogFileName);
-
-        Source source = new StreamSource(getClass().getResourceAsStream("/top/marchand/xml/maven/catalog/xsl/oxygen-catalog-converter.xsl"));
-        XsltTransformer tr = proc.newXsltCompiler().compile(source).load();
-        tr.setSource(new StreamSource(sourceFile));
-        Serializer dest = proc.newSerializer(targetFile);
-        dest.setOutputProperty(Serializer.Property.INDENT, "true");
-        tr.setDestination(dest);
-        tr.transform();
-    }
-
-    private void writeCatalog(CatalogModel catalog) throws FileNotFoundException, XMLStreamException, IOException, MojoExecutionException {
-        XMLOutputFactory fact = XMLOutputFactory.newFactory();
-        File catalogFile = new File(project.getBasedir(), catalogFileName);
-        File directory = catalogFile.getParentFile();
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
-        try (FileOutputStream fos = new FileOutputStream(catalogFile)) {
-            XMLStreamWriter writer = fact.createXMLStreamWriter(fos, "UTF-8");
-            writer = new IndentingXMLStreamWriter(writer);
-            writer.writeStartDocument("UTF-8", "1.0");
-            if (!removeDoctype) {
-                writer.writeDTD("<!DOCTYPE catalog PUBLIC \"-//OASIS//DTD Entity Resolution XML Catalog V1.0//EN\" \"http://www.oasis-open.org/committees/entity/release/1.0/catalog.dtd\">");
-            }
-            writer.setDefaultNamespace("urn:oasis:names:tc:entity:xmlns:xml:catalog");
-            writer.writeStartElement(CATALOG_NS, "catalog");
-            writer.writeAttribute("xmlns", CATALOG_NS);
-            for (RewriteSystemModel rsm : catalog.getEntries()) {
-                for (String generate : generates) {
-                    writeCatalogEntry(writer, generate, rsm);
+    private void writeIfChanged(File file, byte[] content) throws IOException {
+        boolean written = AtomicFileWriter.writeIfChanged(file, content);
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(LOG_PREFIX + file.getAbsolutePath() + (written ? " written" : " is up to date"));
+        }
+    }
+
+    /**
+     * @return {@code true} if {@link #streamCatalog} is set, and no feature requires the whole catalog
+     */
+    private boolean isStreaming(ChmLogger chmLogger) {
+        if (!streamCatalog) {
+            return false;
+        }
+        if (conflictPolicy == CatalogModel.ConflictPolicy.FIRST_WINS && !generateIndex && !generateManifest) {
+            return true;
+        }
+        chmLogger.log(
+                ChmLogger.LogReason.PARAMETERS,
+                ChmLogger.LogLevel.INFO,
+                () -> LOG_PREFIX + "catalog is not streamed, as conflictPolicy is " + conflictPolicy
+                        + (generateIndex ? ", generateIndex is set" : "")
+                        + (generateManifest ? ", generateManifest is set" : ""));
+        return false;
+    }
+
+    /**
+     * Visits the dependency tree, and writes catalog entries as they are produced,
+     * to temporary files that replace catalog files at the end.
+     */
+    private void streamCatalog(ExecutionContext ctx, DependencyNode rootNode, DependencyNodeVisitor visitor)
+            throws XMLStreamException, IOException, MojoExecutionException {
+        for (String generate : generates) {
+            // fails before anything is written
+            getIndexEntryType(generate);
+        }
+        ExecutionMetrics metrics = ctx.getMetrics();
+        File catalogFile = getCatalogFile();
+        Path temp = AtomicFileWriter.createTempFile(catalogFile);
+        Path oxygenTemp = null;
+        try {
+            oxygenTemp = generateOxygenCatalog ? AtomicFileWriter.createTempFile(getOxygenCatalogFile()) : null;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+                 OutputStream oxygenOut = oxygenTemp != null ? new BufferedOutputStream(Files.newOutputStream(oxygenTemp)) : null) {
+                XMLStreamWriter writer = startCatalog(out, oxygenOut);
+                ctx.setCatalogWriter(writer);
+                ctx.setStreamedPrefixes(streamDeduplication ? new PrefixHashSet() : null);
+                long start = metrics.start();
+                rootNode.accept(visitor);
+                metrics.stop(ExecutionMetrics.Phase.TRAVERSAL, start);
+                start = metrics.start();
+                endCatalog(writer, null);
+                ctx.setCatalogWriter(null);
+                metrics.stop(ExecutionMetrics.Phase.WRITE_CATALOG, start);
+            }
+            long start = metrics.start();
+            moveIfChanged(temp, catalogFile);
+            metrics.stop(ExecutionMetrics.Phase.WRITE_CATALOG, start);
+            if (oxygenTemp != null) {
+                start = metrics.start();
+                moveIfChanged(oxygenTemp, getOxygenCatalogFile());
+                metrics.stop(ExecutionMetrics.Phase.WRITE_OXYGEN_CATALOG, start);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+            if (oxygenTemp != null) {
+                Files.deleteIfExists(oxygenTemp);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code rsm} to the streamed catalog, unless its prefix has already been written.
+     */
+    private void streamEntry(ExecutionContext ctx, RewriteSystemModel rsm) {
+        PrefixHashSet prefixes = ctx.getStreamedPrefixes();
+        if (prefixes != null && !prefixes.add(rsm.getUriStartPrefix())) {
+            ctx.getMetrics().increment(ExecutionMetrics.Counter.DUPLICATE_ENTRIES);
+            return;
+        }
+        try {
+            for (String generate : generates) {
+                writeCatalogEntry(ctx.getCatalogWriter(), generate, rsm);
+            }
+        } catch (XMLStreamException ex) {
+            throw new UncheckedIOException(new IOException(ex.getMessage(), ex));
+        } catch (MojoExecutionException ex) {
+            // generates are checked before streaming starts
+            throw new IllegalStateException(ex);
+        }
+        ctx.getMetrics().add(ExecutionMetrics.Counter.ENTRIES_WRITTEN, generates.size());
+    }
+
+    private void moveIfChanged(Path temp, File file) throws IOException {
+        boolean written = AtomicFileWriter.moveIfChanged(temp, file);
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(LOG_PREFIX + file.getAbsolutePath() + (written ? " written" : " is up to date"));
+        }
+    }
+
+    /**
+     * Lists resources of each jar or directory that entries rewrite to, and writes the resource manifest.
+     * Entries that rewrite to another protocol are not in the manifest.
+     */
+    private void writeManifest(ExecutionContext ctx, CatalogModel catalog, ResourceGlobs resourceGlobs) throws IOException {
+        ExecutionMetrics metrics = ctx.getMetrics();
+        long start = metrics.start();
+        Map<File, List<String>> prefixesByFile = new LinkedHashMap<>();
+        for (RewriteSystemModel rsm : catalog.getEntries()) {
+            File file = getRewrittenFile(rsm.getRewritePrefix());
+            if (file != null) {
+                prefixesByFile.computeIfAbsent(file, f -> new ArrayList<>()).add(rsm.getUriStartPrefix());
+            }
+        }
+        ResourceLister lister = new ResourceLister(
+                resourceGlobs,
+                new File(new File(project.getBuild().getDirectory(), "catalogBuilder"), "resources"));
+        List<Callable<List<String>>> tasks = new ArrayList<>(prefixesByFile.size());
+        for (File file : prefixesByFile.keySet()) {
+            tasks.add(() -> lister.list(file));
+        }
+        List<List<String>> listings = ParallelTasks.run(tasks, getInspectionThreads(), "catalog-resource-lister");
+        ResourceManifestWriter manifest = new ResourceManifestWriter();
+        int i = 0;
+        for (List<String> prefixes : prefixesByFile.values()) {
+            List<String> paths = listings.get(i++);
+            for (String prefix : prefixes) {
+                manifest.add(prefix, paths);
+            }
+        }
+        metrics.add(ExecutionMetrics.Counter.ARTIFACTS_LISTED, lister.getListedCount());
+        writeIfChanged(getManifestFile(), manifest.toByteArray());
+        metrics.stop(ExecutionMetrics.Phase.WRITE_MANIFEST, start);
+    }
+
+    /**
+     * @return The jar or directory of a {@code jar:file:} or {@code file:} rewrite prefix, or null
+     */
+    private static File getRewrittenFile(String rewritePrefix) {
+        if (rewritePrefix.startsWith("jar:file:") && rewritePrefix.endsWith("!/")) {
+            // jar:file: URIs are built from the classpath element, without encoding
+            return new File(rewritePrefix.substring("jar:file:".length(), rewritePrefix.length() - 2));
+        } else if (rewritePrefix.startsWith("file:")) {
+            try {
+                return new File(new URI(rewritePrefix));
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void writeCatalog(ExecutionContext ctx, CatalogModel catalog) throws XMLStreamException, IOException, MojoExecutionException {
+        ExecutionMetrics metrics = ctx.getMetrics();
+        long start = metrics.start();
+        File catalogFile = getCatalogFile();
+        // catalogs are rendered in memory, and only written if they have changed
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream oxygenOut = generateOxygenCatalog ? new ByteArrayOutputStream() : null;
+        CatalogIndexWriter index = generateIndex ? new CatalogIndexWriter() : null;
+        XMLStreamWriter writer = startCatalog(out, oxygenOut);
+        for (RewriteSystemModel rsm : catalog.getEntries()) {
+            for (String generate : generates) {
+                writeCatalogEntry(writer, generate, rsm);
+                if (index != null) {
+                    index.add(getIndexEntryType(generate), rsm.getUriStartPrefix(), rsm.getRewritePrefix());
                 }
             }
-            if (delegatesPublic != null) {
-                for (DelegateEntry de : delegatesPublic) {
-                    writeDelegateEntry(writer, "delegatePublic", de);
+        }
+        metrics.add(ExecutionMetrics.Counter.ENTRIES_WRITTEN, (long) catalog.getEntries().size() * generates.size());
+        endCatalog(writer, index);
+        writeIfChanged(catalogFile, out.toByteArray());
+        if (index != null) {
+            writeIfChanged(getIndexFile(), index.toByteArray());
+        }
+        metrics.stop(ExecutionMetrics.Phase.WRITE_CATALOG, start);
+        if (oxygenOut != null) {
+            start = metrics.start();
+            writeIfChanged(getOxygenCatalogFile(), oxygenOut.toByteArray());
+            metrics.stop(ExecutionMetrics.Phase.WRITE_OXYGEN_CATALOG, start);
+        }
+    }
+
+    /**
+     * Writes the start of catalog document
+     *
+     * @param oxygenOut If not null, the Oxygen catalog is written in the same pass
+     */
+    private XMLStreamWriter startCatalog(OutputStream out, OutputStream oxygenOut) throws XMLStreamException {
+        XMLOutputFactory fact = XmlFactories.outputFactory();
+        XMLStreamWriter writer = fact.createXMLStreamWriter(out, "UTF-8");
+        writer = new IndentingXMLStreamWriter(writer);
+        if (oxygenOut != null) {
+            // with jar:file: rewritten to zip:file:
+            writer = new OxygenTeeStreamWriter(
+                    writer,
+                    new IndentingXMLStreamWriter(fact.createXMLStreamWriter(oxygenOut, "UTF-8")));
+        }
+        writer.writeStartDocument("UTF-8", "1.0");
+        if (!removeDoctype) {
+            writer.writeDTD("<!DOCTYPE catalog PUBLIC \"-//OASIS//DTD Entity Resolution XML Catalog V1.0//EN\" \"http://www.oasis-open.org/committees/entity/release/1.0/catalog.dtd\">");
+        }
+        writer.setDefaultNamespace("urn:oasis:names:tc:entity:xmlns:xml:catalog");
+        writer.writeStartElement(CATALOG_NS, "catalog");
+        writer.writeAttribute("xmlns", CATALOG_NS);
+        return writer;
+    }
+
+    /**
+     * Writes delegates and next catalogs, and closes catalog document.
+     *
+     * @param index If not null, delegates and next catalogs are also added to this index
+     */
+    private void endCatalog(XMLStreamWriter writer, CatalogIndexWriter index) throws XMLStreamException, MojoExecutionException {
+        if (delegatesPublic != null) {
+            for (DelegateEntry de : delegatesPublic) {
+                writeDelegateEntry(writer, "delegatePublic", de);
+                if (index != null) {
+                    index.add(EntryType.DELEGATE_PUBLIC, de.getStartString(), de.getCatalog());
                 }
             }
-            if (delegatesSystem != null) {
-                for (DelegateEntry de : delegatesSystem) {
-                    writeDelegateEntry(writer, "delegateSystem", de);
+        }
+        if (delegatesSystem != null) {
+            for (DelegateEntry de : delegatesSystem) {
+                writeDelegateEntry(writer, "delegateSystem", de);
+                if (index != null) {
+                    index.add(EntryType.DELEGATE_SYSTEM, de.getStartString(), de.getCatalog());
                 }
             }
-            if (delegatesURI != null) {
-                for (DelegateEntry de : delegatesURI) {
-                    writeDelegateEntry(writer, "delegateURI", de);
+        }
+        if (delegatesURI != null) {
+            for (DelegateEntry de : delegatesURI) {
+                writeDelegateEntry(writer, "delegateURI", de);
+                if (index != null) {
+                    index.add(EntryType.DELEGATE_URI, de.getStartString(), de.getCatalog());
                 }
             }
-            if (nextCatalogs != null) {
-                for (String nextCatalog : nextCatalogs) {
-                    writer.writeEmptyElement(CATALOG_NS, "nextCatalog");
-                    writer.writeAttribute("catalog", nextCatalog);
+        }
+        if (nextCatalogs != null) {
+            for (String nextCatalog : nextCatalogs) {
+                writer.writeEmptyElement(CATALOG_NS, "nextCatalog");
+                writer.writeAttribute("catalog", nextCatalog);
+                if (index != null) {
+                    index.add(EntryType.NEXT_CATALOG, "", nextCatalog);
                 }
             }
-            writer.writeEndElement();
-            writer.writeEndDocument();
-            fos.flush();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    private static EntryType getIndexEntryType(String generate) throws MojoExecutionException {
+        switch (generate) {
+            case "rewriteURI":
+                return EntryType.REWRITE_URI;
+            case "rewriteSystem":
+                return EntryType.REWRITE_SYSTEM;
+            case "public":
+                return EntryType.PUBLIC;
+            case "system":
+                return EntryType.SYSTEM;
+            case "uri":
+                return EntryType.URI;
+            default:
+                throw new MojoExecutionException("Illegal value for generate: " + generate);
         }
     }
 
@@ -630,57 +1584,31 @@ public class Catalog extends AbstractMojo {
         }
     }
 
-    private ArtifactFilter buildArtifactFilter() {
-        return new ArtifactFilter() {
-            @Override
-            public boolean include(Artifact artfct) {
-                return true;
-            }
-        };
+    /**
+     * Artifacts that are removed from the dependency graph, with their dependencies :
+     * {@link #excludes} if {@link #pruneExcluded} is set, and artifacts out of {@link #scopes} and {@link #types}.
+     */
+    GraphFilter buildGraphFilter(ExecutionContext ctx) {
+        ArtifactMatcher pruned = pruneExcluded && ctx.getIncludes().isEmpty()
+                ? ctx.getExcludes()
+                : ArtifactMatcher.compile(null);
+        return new GraphFilter(pruned, scopes, types);
     }
 
     private static final transient String LOG_PREFIX = "[catalog] ";
     private static final transient String CATALOG_NS = "urn:oasis:names:tc:entity:xmlns:xml:catalog";
 
     /**
-     * Return true if the dependency or one of its ancestor has a classifier in {@link #ACCEPTABLE_JAR_WITH_DEPENDENCIES_CLASSIFIERS}.
+     * Resolves the first classpath element that contains {@code dn}.
      *
-     * @param dn The dependency to check
-     * @return true or false...
-     */
-    private boolean isInJarWithDependencies(DependencyNode dn) {
-        getLog().debug(LOG_PREFIX + " looking for parentry of " + dn.getArtifact().toString());
-        String classifier = dn.getArtifact().getClassifier();
-        getLog().debug(LOG_PREFIX + "classifier=" + classifier);
-        if (classifier != null && Arrays.binarySearch(ACCEPTABLE_JAR_WITH_DEPENDENCIES_CLASSIFIERS, classifier) >= 0) {
-            getLog().debug(LOG_PREFIX + " return true");
-            return true;
-        }
-        if (dn.getParent() == null) {
-            getLog().debug(LOG_PREFIX + "no parent, return false");
-            return false;
-        }
-        return isInJarWithDependencies(dn.getParent());
-    }
-
-    private String getJarFileForJarWithDependency(final DependencyNode dn, List<String> classpthElements) throws OverConstrainedVersionException {
-        if (dn == null) return null;
-        String lastFound = null;
-        DependencyNode currentDn = dn;
-        while (currentDn != null) {
-            String classifier = currentDn.getArtifact().getClassifier();
-            if (classifier == null || Arrays.binarySearch(ACCEPTABLE_JAR_WITH_DEPENDENCIES_CLASSIFIERS, classifier) >= 0) {
-                String artifactPath = constructArtifactPath(currentDn.getArtifact());
-                for (String s : classpthElements) {
-                    if (s.contains(artifactPath)) {
-                        lastFound = s;
-                        break;
-                    }
-                }
-            }
-            currentDn = currentDn.getParent();
-        }
-        return lastFound;
+     * @param ctx The execution context
+     * @param dn The dependency to resolve
+     * @return The classpath element, or {@code null}
+     */
+    private String getFirstJarFile(ExecutionContext ctx, DependencyNode dn) throws OverConstrainedVersionException {
+        ClasspathIndex classpathIndex = ctx.getClasspathIndex();
+        int position = classpathIndex.firstContaining(constructArtifactPath(dn.getArtifact()));
+        return position >= 0 ? classpathIndex.get(position) : null;
     }
 
     private final static String[] ACCEPTABLE_JAR_WITH_DEPENDENCIES_CLASSIFIERS = new String[]{
@@ -690,13 +1618,15 @@ public class Catalog extends AbstractMojo {
 
     private String constructArtifactPath(Artifact art) throws OverConstrainedVersionException {
         String groups[] = art.getGroupId().split("\\.");
-        getLog().debug(LOG_PREFIX + "groups=" + Arrays.toString(groups));
         String artifacts[] = art.getArtifactId().split("\\.");
-        getLog().debug(LOG_PREFIX + "artifacts=" + Arrays.toString(artifacts));
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(LOG_PREFIX + "groups=" + Arrays.toString(groups));
+            getLog().debug(LOG_PREFIX + "artifacts=" + Arrays.toString(artifacts));
+            getLog().debug(LOG_PREFIX + "artifact.baseVersion=" + art.getBaseVersion());
+        }
         String[] elements = new String[groups.length + artifacts.length + 1];
         System.arraycopy(groups, 0, elements, 0, groups.length);
         System.arraycopy(artifacts, 0, elements, groups.length, artifacts.length);
-        getLog().debug(LOG_PREFIX + "artifact.baseVersion=" + art.getBaseVersion());
         elements[elements.length - 1] = art.getBaseVersion();
         return Arrays.stream(elements)
                 .filter(element -> element != null && !element.isEmpty())
@@ -712,32 +1642,13 @@ public class Catalog extends AbstractMojo {
         this.uriPatterns = uriPatterns;
     }
 
-    private class MyArtifact {
-        private final String groupId, artifactId, version;
-
-        public MyArtifact(final String groupId, final String artifactId, final String version) {
-            super();
-            this.groupId = groupId;
-            this.artifactId = artifactId;
-            this.version = version;
-        }
-
-        public String getGroupId() {
-            return groupId;
-        }
-
-        public String getArtifactId() {
-            return artifactId;
-        }
-
-        public String getVersion() {
-            return version;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("artifact[%s,%s,%s]", groupId, artifactId, version);
-        }
+    /**
+     * for UT only
+     *
+     * @param dependencyGraphBuilder
+     */
+    void setDependencyGraphBuilder(DependencyGraphBuilder dependencyGraphBuilder) {
+        this.dependencyGraphBuilder = dependencyGraphBuilder;
     }
 
     public static final transient String[] ALLOWED_URI_PATTERNS = {"compact", "full", "standard"};
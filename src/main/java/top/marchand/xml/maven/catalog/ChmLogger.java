@@ -2,32 +2,61 @@ package top.marchand.xml.maven.catalog;
 
 import org.apache.maven.plugin.logging.Log;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * Logs messages only for enabled {@link LogReason}s.
+ * <p>
+ * Enabled reasons are a bitmask, so checking a reason costs a field read. In hot code,
+ * use {@link #log(LogReason, LogLevel, Supplier)} or guard with {@link #isEnabled(LogReason, LogLevel)},
+ * so that no message is built when it is not logged.
+ */
 public class ChmLogger {
     private final Log log;
-    private Map<LogReason, Boolean> enabled = new HashMap<>();
+    private volatile int enabled;
 
     public ChmLogger(Log log) {
         this.log = log;
     }
     public void log(LogReason reason, LogLevel level, String message) {
-        if(isEnabled(reason)) {
+        if(isEnabled(reason, level)) {
             level.log(log, reason.toString()+": "+message);
         }
     }
-    public void enableReason(LogReason reason, boolean value) {
-        enabled.put(reason, value);
+
+    /**
+     * Logs the message built by {@code message}, which is only called if {@code reason} and {@code level}
+     * are enabled.
+     */
+    public void log(LogReason reason, LogLevel level, Supplier<String> message) {
+        if(isEnabled(reason, level)) {
+            level.log(log, reason.toString()+": "+message.get());
+        }
+    }
+
+    public synchronized void enableReason(LogReason reason, boolean value) {
+        if(value) {
+            enabled |= reason.mask;
+        } else {
+            enabled &= ~reason.mask;
+        }
     }
 
-    private boolean isEnabled(LogReason reason) {
-        Boolean ret = enabled.get(reason);
-        return ret!=null ? ret.booleanValue() : false;
+    public boolean isEnabled(LogReason reason) {
+        return (enabled & reason.mask) != 0;
+    }
+
+    /**
+     * @return {@code true} if {@code reason} is enabled, and underlying log accepts {@code level}
+     */
+    public boolean isEnabled(LogReason reason, LogLevel level) {
+        return isEnabled(reason) && level.isEnabled(log);
     }
 
     public enum LogReason {
-        VISITING, EXCLUSION, MATCHES, PARAMETERS, CLASSPATH, DEPENDENCY;
+        VISITING, EXCLUSION, MATCHES, PARAMETERS, CLASSPATH, DEPENDENCY, METRICS;
+
+        private final int mask = 1 << ordinal();
 
         @Override
         public String toString() {
@@ -73,6 +102,15 @@ public class ChmLogger {
             logger.accept(log, message);
         }
 
+        private boolean isEnabled(Log log) {
+            switch (this) {
+                case DEBUG: return log.isDebugEnabled();
+                case INFO: return log.isInfoEnabled();
+                case WARN: return log.isWarnEnabled();
+                default: return log.isErrorEnabled();
+            }
+        }
+
         private interface BiConsumer<T,U> {
             void accept(T t, U u);
         }
@@ -0,0 +1,155 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An index over the compile classpath elements, built in a single pass.
+ * <p>
+ * Each element is split once into its path segments, and indexed by each of them.
+ * An artifact path ({@code group/path/artifactId/baseVersion}) can only be contained
+ * in an element if its last artifactId segment is a full segment of this element,
+ * so looking up this segment gives the few candidates that have to be checked with
+ * {@link String#contains(CharSequence)}, instead of scanning the whole classpath.
+ * <p>
+ * Elements are kept in classpath order, so callers can apply the same
+ * <em>first match</em> or <em>last match</em> rules as a linear scan.
+ */
+class ClasspathIndex {
+    private static final Pattern TARGET_JAR = Pattern.compile(".*[/\\\\]target[/\\\\][^/\\\\]+\\.jar");
+    private static final int[] EMPTY = new int[0];
+
+    private final List<String> elements;
+    private final Map<String, List<Integer>> bySegment;
+    private final int[] projectOutputs;
+
+    ClasspathIndex(List<String> classpaths) {
+        super();
+        this.elements = new ArrayList<>(classpaths);
+        this.bySegment = new HashMap<>();
+        List<Integer> outputs = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i++) {
+            String element = elements.get(i);
+            if (Kind.of(element) == Kind.PROJECT_OUTPUT) {
+                outputs.add(i);
+            }
+            for (String segment : split(element)) {
+                List<Integer> positions = bySegment.computeIfAbsent(segment, k -> new ArrayList<>(2));
+                // a segment may appear twice in the same element
+                if (positions.isEmpty() || positions.get(positions.size() - 1) != i) {
+                    positions.add(i);
+                }
+            }
+        }
+        projectOutputs = new int[outputs.size()];
+        for (int i = 0; i < projectOutputs.length; i++) {
+            projectOutputs[i] = outputs.get(i);
+        }
+    }
+
+    /**
+     * Returns the position of the last classpath element that contains {@code artifactPath},
+     * or {@code -1} if there is none.
+     * @param artifactPath The artifact path, as built by {@code Catalog.constructArtifactPath}
+     * @return The position in the classpath
+     */
+    int lastContaining(String artifactPath) {
+        List<Integer> candidates = candidates(artifactPath);
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            int position = candidates.get(i);
+            if (elements.get(position).contains(artifactPath)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first classpath element that contains {@code artifactPath},
+     * or {@code -1} if there is none.
+     * @param artifactPath The artifact path, as built by {@code Catalog.constructArtifactPath}
+     * @return The position in the classpath
+     */
+    int firstContaining(String artifactPath) {
+        for (int position : candidates(artifactPath)) {
+            if (elements.get(position).contains(artifactPath)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The positions, in classpath order, of elements that are a project output :
+     * a {@code target/classes} directory or a jar directly in a {@code target/} directory.
+     * @return The positions of project outputs
+     */
+    int[] getProjectOutputs() {
+        return projectOutputs.length == 0 ? EMPTY : projectOutputs;
+    }
+
+    String get(int position) {
+        return elements.get(position);
+    }
+
+    int size() {
+        return elements.size();
+    }
+
+    /**
+     * All segments between two separators of {@code artifactPath} are full segments of
+     * any element that contains it. The one just before the version is the most selective.
+     * When there is no such segment, every element is a candidate.
+     */
+    private List<Integer> candidates(String artifactPath) {
+        int last = artifactPath.lastIndexOf(File.separatorChar);
+        int previous = last > 0 ? artifactPath.lastIndexOf(File.separatorChar, last - 1) : -1;
+        if (previous < 0) {
+            return allPositions();
+        }
+        List<Integer> ret = bySegment.get(artifactPath.substring(previous + 1, last));
+        return ret == null ? Collections.<Integer>emptyList() : ret;
+    }
+
+    private List<Integer> allPositions() {
+        List<Integer> ret = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            ret.add(i);
+        }
+        return ret;
+    }
+
+    private static List<String> split(String element) {
+        List<String> ret = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = element.indexOf(File.separatorChar, start)) >= 0) {
+            ret.add(element.substring(start, end));
+            start = end + 1;
+        }
+        ret.add(element.substring(start));
+        return ret;
+    }
+
+    enum Kind {
+        /**
+         * A jar from a repository, or anything that is not a project output
+         */
+        REPOSITORY,
+        /**
+         * A {@code target/classes} directory, or a jar in a {@code target/} directory
+         */
+        PROJECT_OUTPUT;
+
+        static Kind of(String element) {
+            return element.endsWith("target/classes") || TARGET_JAR.matcher(element).matches() ?
+                    PROJECT_OUTPUT :
+                    REPOSITORY;
+        }
+    }
+}
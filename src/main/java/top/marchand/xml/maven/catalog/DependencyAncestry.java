@@ -0,0 +1,125 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.versioning.OverConstrainedVersionException;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-execution cache of the jar-with-dependencies ancestry of dependency nodes.
+ * <p>
+ * Each node gets its entry from its parent's one, so when nodes are queried in
+ * traversal order (parents before children), each node is computed only once, in
+ * constant time. Nodes queried out of order are computed by walking up to the nearest
+ * cached ancestor, without recursion, so deep graphs can not overflow the stack.
+ */
+class DependencyAncestry {
+    private final String[] jarWithDependenciesClassifiers;
+    private final JarResolver jarResolver;
+    private final Map<DependencyNode, Entry> cache = new IdentityHashMap<>();
+
+    /**
+     * @param jarWithDependenciesClassifiers The classifiers of jar-with-dependencies, <strong>sorted</strong>
+     * @param jarResolver Resolves a node to the classpath element that holds it
+     */
+    DependencyAncestry(String[] jarWithDependenciesClassifiers, JarResolver jarResolver) {
+        super();
+        this.jarWithDependenciesClassifiers = jarWithDependenciesClassifiers;
+        this.jarResolver = jarResolver;
+    }
+
+    /**
+     * Returns true if the dependency or one of its ancestors is a jar-with-dependencies.
+     * @param dn The dependency to check
+     * @return true or false...
+     */
+    boolean isInJarWithDependencies(DependencyNode dn) {
+        return get(dn).jarWithDependencies != null;
+    }
+
+    /**
+     * Returns the nearest jar-with-dependencies among the dependency and its ancestors.
+     * @param dn The dependency
+     * @return The node, or {@code null} if there is none
+     */
+    DependencyNode getJarWithDependencies(DependencyNode dn) {
+        return get(dn).jarWithDependencies;
+    }
+
+    /**
+     * Returns the classpath element that contains {@code dn} : the one found for the
+     * farthest ancestor (or the node itself) that is not classified, or is a
+     * jar-with-dependencies.
+     * @param dn The dependency
+     * @return The classpath element, or {@code null} if none has been found
+     * @throws OverConstrainedVersionException If the resolver throws it
+     */
+    String getJarFile(DependencyNode dn) throws OverConstrainedVersionException {
+        Deque<Entry> unresolved = new ArrayDeque<>();
+        for (Entry entry = get(dn); entry != null && !entry.jarResolved; entry = entry.parent) {
+            unresolved.push(entry);
+        }
+        while (!unresolved.isEmpty()) {
+            Entry entry = unresolved.pop();
+            entry.jarFile = entry.parent != null ? entry.parent.jarFile : null;
+            if (entry.jarFile == null && isCandidate(entry.node)) {
+                entry.jarFile = jarResolver.resolve(entry.node);
+            }
+            entry.jarResolved = true;
+        }
+        return get(dn).jarFile;
+    }
+
+    private Entry get(DependencyNode dn) {
+        Entry ret = cache.get(dn);
+        if (ret != null) {
+            return ret;
+        }
+        Deque<DependencyNode> uncached = new ArrayDeque<>();
+        for (DependencyNode node = dn; node != null && !cache.containsKey(node); node = node.getParent()) {
+            uncached.push(node);
+        }
+        while (!uncached.isEmpty()) {
+            DependencyNode node = uncached.pop();
+            Entry parent = node.getParent() != null ? cache.get(node.getParent()) : null;
+            ret = new Entry(node, parent,
+                    isJarWithDependencies(node) ? node : (parent != null ? parent.jarWithDependencies : null));
+            cache.put(node, ret);
+        }
+        return ret;
+    }
+
+    private boolean isJarWithDependencies(DependencyNode dn) {
+        String classifier = dn.getArtifact().getClassifier();
+        return classifier != null && Arrays.binarySearch(jarWithDependenciesClassifiers, classifier) >= 0;
+    }
+
+    private boolean isCandidate(DependencyNode dn) {
+        return dn.getArtifact().getClassifier() == null || isJarWithDependencies(dn);
+    }
+
+    /**
+     * Resolves a dependency node to a classpath element.
+     */
+    interface JarResolver {
+        String resolve(DependencyNode dn) throws OverConstrainedVersionException;
+    }
+
+    private static class Entry {
+        private final DependencyNode node;
+        private final Entry parent;
+        private final DependencyNode jarWithDependencies;
+        private boolean jarResolved;
+        private String jarFile;
+
+        private Entry(DependencyNode node, Entry parent, DependencyNode jarWithDependencies) {
+            this.node = node;
+            this.parent = parent;
+            this.jarWithDependencies = jarWithDependencies;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package top.marchand.xml.maven.catalog;
+
+import top.marchand.xml.maven.catalog.model.RewriteSystemModel;
+
+import javax.xml.stream.XMLStreamWriter;
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of one {@link Catalog} execution.
+ * <p>
+ * Mojo fields only hold configuration ; everything that is computed during an execution
+ * lives here, and is only reachable from the thread that runs this execution.
+ * Caches shared between executions ({@link PomReader}, {@link ReactorProjects}) are
+ * concurrent or immutable.
+ */
+final class ExecutionContext {
+    private final ChmLogger chmLogger;
+    private final PomReader pomReader;
+    private final ClasspathIndex classpathIndex;
+    private final Map<File, MyArtifact> dependencyDirs;
+    private Map<File, MyArtifact> reactorProjects;
+    private final ArtifactMatcher includes;
+    private final ArtifactMatcher excludes;
+    private final ExecutionMetrics metrics;
+    /**
+     * Entries of processed dependencies, by resolution key
+     */
+    private final Map<String, List<RewriteSystemModel>> resolvedEntries;
+    /**
+     * Project outputs of the classpath, by the artifact declared in their pom.xml.
+     * Lazily built, as it requires to parse poms.
+     */
+    private Map<List<String>, Integer> projectOutputsByArtifact;
+    private DependencyAncestry ancestry;
+    private ResourceExtractor resourceExtractor;
+    private JarInspector jarInspector;
+    private SharedResources shared;
+    private XMLStreamWriter catalogWriter;
+    private PrefixHashSet streamedPrefixes;
+
+    ExecutionContext(
+            ChmLogger chmLogger,
+            List<String> classpaths,
+            Map<File, MyArtifact> reactorProjects,
+            ArtifactMatcher includes,
+            ArtifactMatcher excludes) {
+        super();
+        this.chmLogger = chmLogger;
+        this.reactorProjects = reactorProjects;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.metrics = new ExecutionMetrics();
+        this.pomReader = new PomReader(metrics);
+        this.classpathIndex = new ClasspathIndex(classpaths);
+        this.dependencyDirs = new HashMap<>();
+        this.resolvedEntries = new HashMap<>();
+    }
+
+    ChmLogger getChmLogger() {
+        return chmLogger;
+    }
+
+    ExecutionMetrics getMetrics() {
+        return metrics;
+    }
+
+    PomReader getPomReader() {
+        return pomReader;
+    }
+
+    ClasspathIndex getClasspathIndex() {
+        return classpathIndex;
+    }
+
+    Map<File, MyArtifact> getDependencyDirs() {
+        return dependencyDirs;
+    }
+
+    /**
+     * @return Reactor projects, by their absolute directory. Shared by all executions of the session.
+     */
+    Map<File, MyArtifact> getReactorProjects() {
+        return reactorProjects;
+    }
+
+    void setReactorProjects(Map<File, MyArtifact> reactorProjects) {
+        this.reactorProjects = reactorProjects;
+    }
+
+    Map<String, List<RewriteSystemModel>> getResolvedEntries() {
+        return resolvedEntries;
+    }
+
+    ArtifactMatcher getIncludes() {
+        return includes;
+    }
+
+    ArtifactMatcher getExcludes() {
+        return excludes;
+    }
+
+    Map<List<String>, Integer> getProjectOutputsByArtifact() {
+        return projectOutputsByArtifact;
+    }
+
+    void setProjectOutputsByArtifact(Map<List<String>, Integer> projectOutputsByArtifact) {
+        this.projectOutputsByArtifact = projectOutputsByArtifact;
+    }
+
+    DependencyAncestry getAncestry() {
+        return ancestry;
+    }
+
+    void setAncestry(DependencyAncestry ancestry) {
+        this.ancestry = ancestry;
+    }
+
+    /**
+     * @return The extractor of jar resources, or null if resources are not extracted
+     */
+    ResourceExtractor getResourceExtractor() {
+        return resourceExtractor;
+    }
+
+    void setResourceExtractor(ResourceExtractor resourceExtractor) {
+        this.resourceExtractor = resourceExtractor;
+    }
+
+    /**
+     * @return The inspector of jars, or null if jars without resources are not skipped
+     */
+    JarInspector getJarInspector() {
+        return jarInspector;
+    }
+
+    void setJarInspector(JarInspector jarInspector) {
+        this.jarInspector = jarInspector;
+    }
+
+    /**
+     * @return Caches shared with the generations of other modules, or null
+     */
+    SharedResources getShared() {
+        return shared;
+    }
+
+    void setShared(SharedResources shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * @return The writer entries are streamed to, or null if the catalog is not streamed
+     */
+    XMLStreamWriter getCatalogWriter() {
+        return catalogWriter;
+    }
+
+    void setCatalogWriter(XMLStreamWriter catalogWriter) {
+        this.catalogWriter = catalogWriter;
+    }
+
+    /**
+     * @return Prefixes of streamed entries, or null if streamed entries are not deduplicated
+     */
+    PrefixHashSet getStreamedPrefixes() {
+        return streamedPrefixes;
+    }
+
+    void setStreamedPrefixes(PrefixHashSet streamedPrefixes) {
+        this.streamedPrefixes = streamedPrefixes;
+    }
+}
@@ -0,0 +1,156 @@
+package top.marchand.xml.maven.catalog;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the phases of a {@link Catalog} execution, and counters of the work done.
+ * <p>
+ * Phases may be nested : {@link Phase#POM_LOADING} and {@link Phase#RESOURCE_EXTRACTION}
+ * happen during {@link Phase#TRAVERSAL},
+ * so durations do not sum up to the execution duration.
+ */
+final class ExecutionMetrics {
+
+    enum Phase {
+        CLASSPATH("classpath"),
+        FINGERPRINT("fingerprint"),
+        DEPENDENCY_GRAPH("dependencyGraph"),
+        TRAVERSAL("traversal"),
+        POM_LOADING("pomLoading"),
+        JAR_INSPECTION("jarInspection"),
+        RESOURCE_EXTRACTION("resourceExtraction"),
+        WRITE_CATALOG("writeCatalog"),
+        WRITE_MANIFEST("writeManifest"),
+        WRITE_OXYGEN_CATALOG("writeOxygenCatalog");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+    }
+
+    enum Counter {
+        NODES_VISITED("nodesVisited"),
+        NODES_PRUNED("nodesPruned"),
+        DEPENDENCIES_PROCESSED("dependenciesProcessed"),
+        DEPENDENCIES_REUSED("dependenciesReused"),
+        DEPENDENCIES_SHARED("dependenciesShared"),
+        CLASSPATH_LOOKUPS("classpathLookups"),
+        POMS_PARSED("pomsParsed"),
+        POM_CACHE_HITS("pomCacheHits"),
+        DUPLICATE_ENTRIES("duplicateEntries"),
+        JARS_INSPECTED("jarsInspected"),
+        SKIPPED_WITHOUT_RESOURCES("skippedWithoutResources"),
+        RESOURCES_EXTRACTED("resourcesExtracted"),
+        ARTIFACTS_LISTED("artifactsListed"),
+        ENTRIES_WRITTEN("entriesWritten");
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+
+    private final long[] durations = new long[Phase.values().length];
+    private final long[] counters = new long[Counter.values().length];
+
+    /**
+     * @return A start time, to give to {@link #stop(Phase, long)}
+     */
+    long start() {
+        return System.nanoTime();
+    }
+
+    void stop(Phase phase, long start) {
+        durations[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    void increment(Counter counter) {
+        counters[counter.ordinal()]++;
+    }
+
+    void add(Counter counter, long value) {
+        counters[counter.ordinal()] += value;
+    }
+
+    long getDurationMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(durations[phase.ordinal()]);
+    }
+
+    long get(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    /**
+     * @return A one-line summary, as {@code classpath=3ms ... nodesVisited=42 ...}
+     */
+    String toSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            sb.append(phase.key).append('=').append(getDurationMillis(phase)).append("ms ");
+        }
+        for (Counter counter : Counter.values()) {
+            sb.append(counter.key).append('=').append(get(counter)).append(' ');
+        }
+        return sb.substring(0, sb.length() - 1);
+    }
+
+    /**
+     * Renders metrics as a JSON object. Durations are in microseconds.
+     *
+     * @param properties Properties describing the execution, written first
+     */
+    String toJson(Map<String, Object> properties) {
+        StringBuilder sb = new StringBuilder("{\n");
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            appendString(sb.append("  "), property.getKey()).append(": ");
+            Object value = property.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                sb.append(value);
+            } else if (value == null) {
+                sb.append("null");
+            } else {
+                appendString(sb, value.toString());
+            }
+            sb.append(",\n");
+        }
+        sb.append("  \"durationsMicros\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            appendString(sb.append(separator).append("    "), phase.key)
+                    .append(": ").append(TimeUnit.NANOSECONDS.toMicros(durations[phase.ordinal()]));
+            separator = ",\n";
+        }
+        sb.append("\n  },\n  \"counters\": {");
+        separator = "\n";
+        for (Counter counter : Counter.values()) {
+            appendString(sb.append(separator).append("    "), counter.key).append(": ").append(get(counter));
+            separator = ",\n";
+        }
+        return sb.append("\n  }\n}\n").toString();
+    }
+
+    private static StringBuilder appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,139 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A digest of all the inputs of a catalog generation.
+ * <p>
+ * Values are added with a name, and each one is terminated, so that two different
+ * sequences of values can not produce the same digest.
+ */
+class Fingerprint {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final MessageDigest digest;
+
+    Fingerprint() {
+        super();
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    Fingerprint add(String name, Object value) {
+        update(name);
+        update(value == null ? "\u0000null" : value.toString());
+        return this;
+    }
+
+    Fingerprint add(String name, Collection<?> values) {
+        if (values == null) {
+            return add(name, (Object) null);
+        }
+        add(name, values.size());
+        for (Object value : values) {
+            update(value == null ? "\u0000null" : value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Adds the path, size and last modification time of {@code file}.
+     */
+    Fingerprint addFile(String name, File file) {
+        add(name, file == null ? null : file.getAbsolutePath());
+        if (file != null) {
+            add("length", file.length());
+            add("lastModified", file.lastModified());
+        }
+        return this;
+    }
+
+    /**
+     * Adds the path of {@code directory}, and the relative path, size and last modification time
+     * of each of its files accepted by {@code filter}, in path order.
+     *
+     * @param filter Tests paths relative to {@code directory}, with {@code /} separators
+     */
+    Fingerprint addDirectory(String name, File directory, Predicate<String> filter) throws IOException {
+        add(name, directory.getAbsolutePath());
+        Path root = directory.toPath();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path path : files) {
+            String relative = root.relativize(path).toString().replace(File.separatorChar, '/');
+            if (filter.test(relative)) {
+                addFile(relative, path.toFile());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the path and content of {@code file}.
+     */
+    Fingerprint addContent(String name, File file) throws IOException {
+        add(name, file.getAbsolutePath());
+        byte[] buffer = new byte[8192];
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            for (int read = is.read(buffer); read >= 0; read = is.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte) 0);
+        return this;
+    }
+
+    String toHex() {
+        byte[] bytes = digest.digest();
+        char[] ret = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            ret[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            ret[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(ret);
+    }
+
+    /**
+     * Returns true if {@code file} contains {@code fingerprint}
+     */
+    static boolean isStored(File file, String fingerprint) {
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            return fingerprint.equals(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    static void store(File file, String fingerprint) throws IOException {
+        File directory = file.getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        Files.write(file.toPath(), fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void update(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,59 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides which artifacts are part of the dependency graph. An artifact that is not included
+ * is removed from the graph with all its dependencies.
+ * <p>
+ * It is given to the graph builder, and also checked while visiting the graph, as graph builders
+ * may ignore it.
+ */
+class GraphFilter implements ArtifactFilter {
+    private final ArtifactMatcher excludes;
+    private final Set<String> scopes;
+    private final Set<String> types;
+
+    /**
+     * @param excludes Excluded artifacts, with their dependencies. May be empty.
+     * @param scopes Scopes of included artifacts, or null for all scopes
+     * @param types Types of included artifacts, or null for all types
+     */
+    GraphFilter(ArtifactMatcher excludes, Collection<String> scopes, Collection<String> types) {
+        super();
+        this.excludes = excludes;
+        this.scopes = scopes == null || scopes.isEmpty() ? null : new HashSet<>(scopes);
+        this.types = types == null || types.isEmpty() ? null : new HashSet<>(types);
+    }
+
+    /**
+     * @return {@code true} if this filter includes every artifact
+     */
+    boolean isEmpty() {
+        return excludes.isEmpty() && scopes == null && types == null;
+    }
+
+    @Override
+    public boolean include(Artifact artifact) {
+        return getExclusionReason(artifact) == null;
+    }
+
+    /**
+     * @return Why {@code artifact} is excluded, or null if it is included
+     */
+    String getExclusionReason(Artifact artifact) {
+        if (scopes != null && artifact.getScope() != null && !scopes.contains(artifact.getScope())) {
+            return "scope " + artifact.getScope() + " is not in " + scopes;
+        }
+        if (types != null && !types.contains(artifact.getType())) {
+            return "type " + artifact.getType() + " is not in " + types;
+        }
+        String pattern = excludes.findMatch(artifact.getGroupId(), artifact.getArtifactId());
+        return pattern == null ? null : "it is excluded by " + pattern;
+    }
+}
@@ -0,0 +1,160 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Tells whether jars contain XML resources, that match {@link ResourceGlobs}.
+ * <p>
+ * Only the central directory of jars is read. Jars can be inspected in parallel, before
+ * the dependency tree is visited ; results are cached in a file, by jar path, size and
+ * last modification time, so that unchanged jars are not opened again on next builds.
+ * The cache file name depends on globs.
+ */
+final class JarInspector {
+    private final ResourceGlobs globs;
+    private final File cacheFile;
+    private final ExecutionMetrics metrics;
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final AtomicInteger inspected = new AtomicInteger();
+
+    /**
+     * A cached inspection result
+     */
+    private static final class Result {
+        final long length;
+        final long lastModified;
+        final boolean hasResources;
+
+        Result(long length, long lastModified, boolean hasResources) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hasResources = hasResources;
+        }
+
+        boolean isValid(File jar) {
+            return jar.length() == length && jar.lastModified() == lastModified;
+        }
+    }
+
+    /**
+     * @param cacheDirectory Directory of the cache file, or null if results are not cached
+     */
+    JarInspector(ResourceGlobs globs, File cacheDirectory, ExecutionMetrics metrics) {
+        super();
+        this.globs = globs;
+        this.cacheFile = cacheDirectory == null ? null : new File(cacheDirectory,
+                "jars-" + new Fingerprint()
+                        .add("globs", globs.getGlobs())
+                        .add("excludes", globs.getExcludes())
+                        .toHex().substring(0, 16) + ".cache");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Inspects {@code jars} on at most {@code threads} threads. Jars that are not files are ignored.
+     *
+     * @throws IOException If a jar can not be read
+     */
+    void inspectAll(Collection<String> jars, int threads) throws IOException {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (String jar : jars) {
+            if (jar.endsWith(".jar") && new File(jar).isFile() && !isCached(jar)) {
+                tasks.add(() -> inspect(jar));
+            }
+        }
+        ParallelTasks.run(tasks, threads, "catalog-jar-inspector");
+    }
+
+    /**
+     * @return {@code true} if {@code jar} contains at least one resource that matches globs,
+     *         or if {@code jar} does not exist, as it can not be told
+     * @throws IOException If jar can not be read
+     */
+    boolean hasResources(String jar) throws IOException {
+        File file = new File(jar);
+        Result result = results.get(jar);
+        if (result != null && result.isValid(file)) {
+            return result.hasResources;
+        }
+        return !file.isFile() || inspect(jar);
+    }
+
+    private boolean isCached(String jar) {
+        Result result = results.get(jar);
+        return result != null && result.isValid(new File(jar));
+    }
+
+    private boolean inspect(String jar) throws IOException {
+        File file = new File(jar);
+        long length = file.length();
+        long lastModified = file.lastModified();
+        boolean ret = false;
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (!ret && entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                ret = !entry.isDirectory() && globs.matches(entry.getName());
+            }
+        }
+        results.put(jar, new Result(length, lastModified, ret));
+        inspected.incrementAndGet();
+        return ret;
+    }
+
+    /**
+     * Reads the cache file, if any. A corrupted cache is ignored.
+     */
+    void load() {
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+                // hasResources length lastModified path
+                String[] fields = line.split(" ", 4);
+                if (fields.length == 4) {
+                    results.put(fields[3], new Result(
+                            Long.parseLong(fields[1]),
+                            Long.parseLong(fields[2]),
+                            Boolean.parseBoolean(fields[0])));
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            results.clear();
+        }
+    }
+
+    /**
+     * Writes the cache file, if some jars have been inspected.
+     */
+    void store() throws IOException {
+        int count = inspected.getAndSet(0);
+        metrics.add(ExecutionMetrics.Counter.JARS_INSPECTED, count);
+        if (cacheFile == null || count == 0) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Result> entry : new TreeMap<>(results).entrySet()) {
+            Result result = entry.getValue();
+            sb.append(result.hasResources).append(' ')
+                    .append(result.length).append(' ')
+                    .append(result.lastModified).append(' ')
+                    .append(entry.getKey()).append('\n');
+        }
+        AtomicFileWriter.writeIfChanged(cacheFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package top.marchand.xml.maven.catalog;
+
+/**
+ * The coordinates of a project found on disk, from its {@code pom.xml}.
+ */
+class MyArtifact {
+    private final String groupId, artifactId, version;
+
+    public MyArtifact(final String groupId, final String artifactId, final String version) {
+        super();
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("artifact[%s,%s,%s]", groupId, artifactId, version);
+    }
+}
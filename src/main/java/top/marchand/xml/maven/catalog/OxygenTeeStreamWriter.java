@@ -0,0 +1,204 @@
+package top.marchand.xml.maven.catalog;
+
+import javanet.staxutils.helpers.StreamWriterDelegate;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes the same document to a standard catalog writer and to an Oxygen catalog writer.
+ * <p>
+ * In the Oxygen catalog, attribute values that start with {@code jar:file:} are rewritten
+ * to start with {@code zip:file:}, as Oxygen has a special mechanism to load these resources.
+ * The DOCTYPE is only written to the standard catalog : the Oxygen catalog never had one.
+ * Queries (properties, namespace context, prefixes) are answered by the standard writer.
+ */
+class OxygenTeeStreamWriter extends StreamWriterDelegate {
+    private static final String JAR_FILE = "jar:file:";
+    private static final String ZIP_FILE = "zip:file:";
+
+    private final XMLStreamWriter oxygen;
+
+    OxygenTeeStreamWriter(XMLStreamWriter standard, XMLStreamWriter oxygen) {
+        super(standard);
+        this.oxygen = oxygen;
+    }
+
+    static String toOxygen(String value) {
+        return value != null && value.startsWith(JAR_FILE) ? ZIP_FILE + value.substring(JAR_FILE.length()) : value;
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        super.setNamespaceContext(context);
+        oxygen.setNamespaceContext(context);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        super.setDefaultNamespace(uri);
+        oxygen.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        super.setPrefix(prefix, uri);
+        oxygen.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        super.writeStartDocument();
+        oxygen.writeStartDocument();
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        super.writeStartDocument(version);
+        oxygen.writeStartDocument(version);
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        super.writeStartDocument(encoding, version);
+        oxygen.writeStartDocument(encoding, version);
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        super.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        super.writeProcessingInstruction(target);
+        oxygen.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        super.writeProcessingInstruction(target, data);
+        oxygen.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        super.writeComment(data);
+        oxygen.writeComment(data);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        super.writeEmptyElement(localName);
+        oxygen.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        super.writeEmptyElement(namespaceURI, localName);
+        oxygen.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        super.writeEmptyElement(prefix, localName, namespaceURI);
+        oxygen.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        super.writeStartElement(localName);
+        oxygen.writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        super.writeStartElement(namespaceURI, localName);
+        oxygen.writeStartElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        super.writeStartElement(prefix, localName, namespaceURI);
+        oxygen.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        super.writeDefaultNamespace(namespaceURI);
+        oxygen.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        super.writeNamespace(prefix, namespaceURI);
+        oxygen.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        super.writeAttribute(localName, value);
+        oxygen.writeAttribute(localName, toOxygen(value));
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        super.writeAttribute(namespaceURI, localName, value);
+        oxygen.writeAttribute(namespaceURI, localName, toOxygen(value));
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        super.writeAttribute(prefix, namespaceURI, localName, value);
+        oxygen.writeAttribute(prefix, namespaceURI, localName, toOxygen(value));
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        super.writeCharacters(text);
+        oxygen.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        super.writeCharacters(text, start, len);
+        oxygen.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        super.writeCData(data);
+        oxygen.writeCData(data);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        super.writeEntityRef(name);
+        oxygen.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        super.writeEndElement();
+        oxygen.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        super.writeEndDocument();
+        oxygen.writeEndDocument();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        super.flush();
+        oxygen.flush();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        super.close();
+        oxygen.close();
+    }
+}
@@ -0,0 +1,59 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs I/O tasks on a bounded pool of daemon threads, that lives for one call.
+ */
+final class ParallelTasks {
+
+    private ParallelTasks() {
+        super();
+    }
+
+    /**
+     * Runs {@code tasks} on at most {@code threads} threads, and waits for all of them.
+     *
+     * @param name Name of the threads
+     * @return Results of tasks, in the same order
+     * @throws IOException The first exception thrown by a task, in tasks order
+     */
+    static <T> List<T> run(List<Callable<T>> tasks, int threads, String name) throws IOException {
+        List<T> ret = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return ret;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())), r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                ret.add(future.get());
+            }
+            return ret;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
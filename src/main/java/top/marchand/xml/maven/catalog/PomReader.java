@@ -0,0 +1,219 @@
+package top.marchand.xml.maven.catalog;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the coordinates declared in a {@code pom.xml}.
+ * <p>
+ * The pom is streamed with StAX, and reading stops as soon as all coordinates
+ * have been found, so large {@code dependencyManagement} sections following them
+ * are never read, nor is any tree built. Read coordinates are cached
+ * for the whole JVM, by canonical path, size and last modification time, so a parent pom shared
+ * by all modules of a reactor is parsed only once, and a changed pom is parsed again. The cache
+ * keeps the {@link #CACHE_SIZE} most recently used poms, so that a long-lived JVM (a daemon,
+ * or the {@code watch} goal) does not retain all poms it has ever read.
+ */
+class PomReader {
+    private static final String POM_NS = "http://maven.apache.org/POM/4.0.0";
+    /**
+     * Maximum number of cached poms
+     */
+    static final int CACHE_SIZE = 1024;
+    private static final Map<CacheKey, PomCoordinates> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<CacheKey, PomCoordinates>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, PomCoordinates> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private final XMLInputFactory inputFactory;
+    private final ExecutionMetrics metrics;
+
+    PomReader() {
+        this(new ExecutionMetrics());
+    }
+
+    /**
+     * @param metrics Where parsed poms and cache hits are counted
+     */
+    PomReader(ExecutionMetrics metrics) {
+        super();
+        this.metrics = metrics;
+        this.inputFactory = XmlFactories.inputFactory();
+    }
+
+    /**
+     * Returns the coordinates declared in {@code pomFile}, from cache if file has not changed.
+     *
+     * @param pomFile The pom file
+     * @return The coordinates. Each of them may be null if not declared.
+     * @throws IOException If pom can not be read
+     * @throws XMLStreamException If pom is not well-formed
+     */
+    PomCoordinates read(File pomFile) throws IOException, XMLStreamException {
+        File file = canonical(pomFile);
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        CacheKey key = new CacheKey(
+                file,
+                attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                attributes.size());
+        PomCoordinates cached = CACHE.get(key);
+        if (cached != null) {
+            metrics.increment(ExecutionMetrics.Counter.POM_CACHE_HITS);
+            return cached;
+        }
+        metrics.increment(ExecutionMetrics.Counter.POMS_PARSED);
+        PomCoordinates coordinates = parse(file);
+        CACHE.put(key, coordinates);
+        return coordinates;
+    }
+
+    PomCoordinates parse(File pomFile) throws IOException, XMLStreamException {
+        String groupId = null, artifactId = null, version = null, relativePath = null;
+        try (InputStream is = Files.newInputStream(pomFile.toPath())) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(is);
+            try {
+                // depth of current element : 1 is project
+                int depth = 0;
+                boolean inParent = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                        if (depth == 1) {
+                            inParent = false;
+                        }
+                        continue;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    depth++;
+                    if (!POM_NS.equals(reader.getNamespaceURI())) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if (depth == 1 && !"project".equals(name)) {
+                        break;
+                    } else if (depth == 2) {
+                        switch (name) {
+                            case "groupId":
+                                groupId = reader.getElementText();
+                                depth--;
+                                break;
+                            case "artifactId":
+                                artifactId = reader.getElementText();
+                                depth--;
+                                break;
+                            case "version":
+                                version = reader.getElementText();
+                                depth--;
+                                break;
+                            case "parent":
+                                inParent = true;
+                        }
+                    } else if (depth == 3 && inParent && "relativePath".equals(name)) {
+                        relativePath = reader.getElementText();
+                        depth--;
+                    }
+                    if (groupId != null && artifactId != null && version != null) {
+                        // relativePath is only useful to look for inherited coordinates
+                        break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return new PomCoordinates(groupId, artifactId, version, relativePath);
+    }
+
+    /**
+     * Empties the JVM-wide cache. For tests.
+     */
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static File canonical(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException ex) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    /**
+     * Coordinates declared in a pom, i.e. children of {@code /project},
+     * and {@code /project/parent/relativePath}.
+     */
+    static class PomCoordinates {
+        private final String groupId, artifactId, version, parentRelativePath;
+
+        PomCoordinates(String groupId, String artifactId, String version, String parentRelativePath) {
+            super();
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.parentRelativePath = parentRelativePath;
+        }
+
+        String getGroupId() {
+            return groupId;
+        }
+
+        String getArtifactId() {
+            return artifactId;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        String getParentRelativePath() {
+            return parentRelativePath;
+        }
+    }
+
+    /**
+     * A version of a pom file
+     */
+    private static final class CacheKey {
+        private final File file;
+        private final long lastModified;
+        private final long length;
+
+        private CacheKey(File file, long lastModified, long length) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return lastModified == other.lastModified && length == other.length && file.equals(other.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * file.hashCode() + Long.hashCode(lastModified)) + Long.hashCode(length);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package top.marchand.xml.maven.catalog;
+
+/**
+ * A set of catalog prefixes, that only keeps a 64-bit hash of each prefix, in an open-addressing table.
+ * <p>
+ * It uses 16 bytes per prefix at most, whatever the prefix length. Two different prefixes with the same
+ * hash are considered equal. Every char is mixed into the hash, so there is no family of prefixes that
+ * collide by construction, as with a polynomial hash ("Aa" and "BB") ; the probability that two
+ * prefixes of a catalog of n entries collide by chance is about n&sup2; / 2<sup>65</sup>.
+ */
+final class PrefixHashSet {
+    private static final long EMPTY = 0L;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long[] table = new long[1024];
+    private int size;
+
+    /**
+     * @return {@code true} if {@code prefix} was not in the set
+     */
+    boolean add(CharSequence prefix) {
+        long hash = hash(prefix);
+        if (2 * (size + 1) > table.length) {
+            resize();
+        }
+        if (insert(table, hash)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] larger = new long[table.length * 2];
+        for (long hash : table) {
+            if (hash != EMPTY) {
+                insert(larger, hash);
+            }
+        }
+        table = larger;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            if (table[i] == EMPTY) {
+                table[i] = hash;
+                return true;
+            } else if (table[i] == hash) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-16 chars, mixed with the MurmurHash3 finalizer, as the table is indexed
+     * by the low bits. Never {@link #EMPTY}.
+     */
+    static long hash(CharSequence s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            h = (h ^ (c & 0xFF)) * FNV_PRIME;
+            h = (h ^ (c >>> 8)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+}
@@ -0,0 +1,63 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Coordinates of reactor projects, by project directory, shared by all executions of a session.
+ * <p>
+ * The index is built once per session from in-memory {@link MavenProject} models, so that
+ * a {@code target/classes} classpath element of a sibling module is matched without parsing its
+ * {@code pom.xml}. Models are already interpolated, so inherited or property-based coordinates
+ * are resolved.
+ */
+final class ReactorProjects {
+    private static final Map<MavenSession, Map<File, MyArtifact>> BY_SESSION = new WeakHashMap<>();
+
+    private ReactorProjects() {
+        super();
+    }
+
+    /**
+     * Returns the reactor projects of {@code session}, indexed by their directory.
+     *
+     * @param session The current session, may be null
+     * @return An unmodifiable map, empty if there is no session
+     */
+    static Map<File, MyArtifact> of(MavenSession session) {
+        if (session == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (BY_SESSION) {
+            Map<File, MyArtifact> ret = BY_SESSION.get(session);
+            if (ret == null) {
+                List<MavenProject> projects = session.getAllProjects() != null ? session.getAllProjects() : session.getProjects();
+                ret = index(projects);
+                BY_SESSION.put(session, ret);
+            }
+            return ret;
+        }
+    }
+
+    static Map<File, MyArtifact> index(List<MavenProject> projects) {
+        if (projects == null || projects.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<File, MyArtifact> ret = new HashMap<>(projects.size() * 2);
+        for (MavenProject project : projects) {
+            if (project.getBasedir() != null) {
+                ret.put(
+                        project.getBasedir().getAbsoluteFile(),
+                        new MyArtifact(project.getGroupId(), project.getArtifactId(), project.getVersion()));
+            }
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+}
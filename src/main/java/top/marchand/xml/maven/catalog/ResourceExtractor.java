@@ -0,0 +1,146 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts the resources of jars that match {@link ResourceGlobs} to
+ * {@code <baseDirectory>/<groupId>/<artifactId>/<version>/<artifactId>-<version>[-<classifier>].<type>/},
+ * as the local repository lays out files, so that jars which only differ by classifier or type do not share
+ * a directory. Catalog entries can then point to plain {@code file:} directories instead of {@code jar:file:} URLs.
+ * <p>
+ * A marker file in each directory holds the path, size and last modification time of the extracted jar, and
+ * a checksum of its content and globs. The jar is hashed only when its size or modification time change,
+ * and extracted again only when the checksum changes. Each jar is checked once per instance. Extractions
+ * are serialized, so that an instance can be shared by parallel executions.
+ */
+final class ResourceExtractor {
+    /**
+     * Name of the checksum file, in each extraction directory
+     */
+    static final String MARKER = ".catalog-resources";
+
+    private final File baseDirectory;
+    private final ResourceGlobs globs;
+    private final ExecutionMetrics metrics;
+    private final Map<File, File> extracted = new HashMap<>();
+
+    ResourceExtractor(File baseDirectory, ResourceGlobs globs, ExecutionMetrics metrics) {
+        super();
+        this.baseDirectory = baseDirectory;
+        this.globs = globs;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Extracts {@code jar}, unless it has already been extracted with the same content and globs.
+     *
+     * @param classifier The classifier, may be null
+     * @param type The type, {@code jar} if null
+     * @return The directory where resources are
+     * @throws IOException If jar can not be read, or resources can not be written
+     */
+    synchronized File extract(File jar, String groupId, String artifactId, String version, String classifier, String type)
+            throws IOException {
+        File ret = extracted.get(jar);
+        if (ret != null) {
+            return ret;
+        }
+        String name = artifactId + "-" + version
+                + (classifier != null && !classifier.isEmpty() ? "-" + classifier : "")
+                + "." + (type != null ? type : "jar");
+        ret = new File(new File(new File(new File(baseDirectory, groupId), artifactId), version), name);
+        File marker = new File(ret, MARKER);
+        String jarState = new Fingerprint()
+                .add("globs", globs.getGlobs())
+                .add("excludes", globs.getExcludes())
+                .addFile("jar", jar)
+                .toHex();
+        List<String> stored = readMarker(marker);
+        if (stored.size() != 2 || !jarState.equals(stored.get(0))) {
+            String checksum = new Fingerprint()
+                    .add("globs", globs.getGlobs())
+                    .add("excludes", globs.getExcludes())
+                    .addContent("jar", jar)
+                    .toHex();
+            if (stored.size() != 2 || !checksum.equals(stored.get(1))) {
+                File temp = new File(ret.getParentFile(), ret.getName() + ".tmp");
+                delete(temp);
+                metrics.add(ExecutionMetrics.Counter.RESOURCES_EXTRACTED, extractTo(jar, temp));
+                delete(ret);
+                Files.move(temp.toPath(), ret.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            // written last : an interrupted extraction is done again
+            Fingerprint.store(marker, jarState + "\n" + checksum);
+        }
+        extracted.put(jar, ret);
+        return ret;
+    }
+
+    /**
+     * @return The lines of {@code marker} : jar state and content checksum, or an empty list if it can not be read
+     */
+    private static List<String> readMarker(File marker) {
+        if (!marker.isFile()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Files.readAllLines(marker.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            return Collections.emptyList();
+        }
+    }
+
+    private int extractTo(File jar, File directory) throws IOException {
+        directory.mkdirs();
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        int count = 0;
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !globs.matches(entry.getName())) {
+                    continue;
+                }
+                Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Entry " + entry.getName() + " of " + jar + " is outside of the jar");
+                }
+                Files.createDirectories(target.getParent());
+                try (InputStream is = zip.getInputStream(entry)) {
+                    Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void delete(File directory) throws IOException {
+        if (!directory.exists()) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory.toPath())) {
+            walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package top.marchand.xml.maven.catalog;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Globs of the jar entries that are XML resources.
+ * {@code **} matches any number of directories, {@code *} and {@code ?} do not match {@code /}.
+ * Jar metadata is excluded: {@code META-INF/**} with the default globs, {@code META-INF/maven/**}
+ * (the pom.xml every Maven-built jar carries) with any globs.
+ */
+final class ResourceGlobs {
+    static final List<String> DEFAULTS = Collections.unmodifiableList(Arrays.asList(
+            "**/*.xsl", "**/*.xslt", "**/*.xsd", "**/*.rng", "**/*.rnc", "**/*.sch", "**/*.dtd",
+            "**/*.ent", "**/*.mod", "**/*.xml", "**/*.xpl", "**/*.xq", "**/*.xqm", "**/*.xquery"));
+    static final List<String> DEFAULT_EXCLUDES = Collections.singletonList("META-INF/**");
+    static final List<String> EXCLUDES = Collections.singletonList("META-INF/maven/**");
+
+    private final List<String> globs;
+    private final List<String> excludes;
+    private final Pattern pattern;
+    private final Pattern excludePattern;
+
+    /**
+     * @param globs If null or empty, {@link #DEFAULTS} are used
+     */
+    ResourceGlobs(List<String> globs) {
+        super();
+        boolean defaults = globs == null || globs.isEmpty();
+        this.globs = defaults ? DEFAULTS : globs;
+        this.excludes = defaults ? DEFAULT_EXCLUDES : EXCLUDES;
+        this.pattern = compile(this.globs);
+        this.excludePattern = compile(this.excludes);
+    }
+
+    List<String> getGlobs() {
+        return globs;
+    }
+
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    boolean matches(String entryName) {
+        return pattern.matcher(entryName).matches() && !excludePattern.matcher(entryName).matches();
+    }
+
+    /**
+     * Compiles globs to one regular expression
+     */
+    private static Pattern compile(List<String> globs) {
+        StringBuilder sb = new StringBuilder();
+        for (String glob : globs) {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            sb.append("(?:");
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (glob.startsWith("**/", i)) {
+                    sb.append("(?:.*/)?");
+                    i += 3;
+                    continue;
+                } else if (glob.startsWith("**", i)) {
+                    sb.append(".*");
+                    i += 2;
+                    continue;
+                } else if (c == '*') {
+                    sb.append("[^/]*");
+                } else if (c == '?') {
+                    sb.append("[^/]");
+                } else {
+                    sb.append(Pattern.quote(String.valueOf(c)));
+                }
+                i++;
+            }
+            sb.append(')');
+        }
+        return Pattern.compile(sb.toString());
+    }
+}
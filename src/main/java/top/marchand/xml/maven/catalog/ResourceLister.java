@@ -0,0 +1,113 @@
+package top.marchand.xml.maven.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lists the resources of jars and directories that match {@link ResourceGlobs}.
+ * <p>
+ * Listings of jars are cached in a file per jar, and are valid as long as the jar size and
+ * last modification time do not change. Directories, as {@code target/classes}, are always listed.
+ * Jars and directories may be listed concurrently.
+ */
+final class ResourceLister {
+    private final ResourceGlobs globs;
+    private final File cacheDirectory;
+    private final AtomicInteger listed = new AtomicInteger();
+
+    /**
+     * @param cacheDirectory Directory of listings cache files, or null if listings are not cached
+     */
+    ResourceLister(ResourceGlobs globs, File cacheDirectory) {
+        super();
+        this.globs = globs;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param file A jar or a directory
+     * @return Paths of resources, relative to {@code file}, with {@code /} separators, sorted.
+     *         Empty if {@code file} does not exist.
+     * @throws IOException If {@code file} can not be read
+     */
+    List<String> list(File file) throws IOException {
+        if (file.isDirectory()) {
+            return listDirectory(file);
+        } else if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        File cacheFile = cacheDirectory == null ? null : new File(cacheDirectory, new Fingerprint()
+                .add("globs", globs.getGlobs())
+                .add("excludes", globs.getExcludes())
+                .add("jar", file.getAbsolutePath())
+                .toHex().substring(0, 16) + ".lst");
+        // first line is "length lastModified"
+        String header = file.length() + " " + file.lastModified();
+        if (cacheFile != null && cacheFile.isFile()) {
+            List<String> lines = Files.readAllLines(cacheFile.toPath(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && header.equals(lines.get(0))) {
+                return lines.subList(1, lines.size());
+            }
+        }
+        List<String> ret = listJar(file);
+        if (cacheFile != null) {
+            StringBuilder sb = new StringBuilder(header).append('\n');
+            for (String path : ret) {
+                sb.append(path).append('\n');
+            }
+            AtomicFileWriter.writeIfChanged(cacheFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return ret;
+    }
+
+    /**
+     * @return The number of jars and directories that have been listed, and not read from cache.
+     *         Can be called from any thread.
+     */
+    int getListedCount() {
+        return listed.get();
+    }
+
+    private List<String> listJar(File jar) throws IOException {
+        listed.incrementAndGet();
+        List<String> ret = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && globs.matches(entry.getName())) {
+                    ret.add(entry.getName());
+                }
+            }
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    private List<String> listDirectory(File directory) throws IOException {
+        listed.incrementAndGet();
+        Path root = directory.toPath();
+        List<String> ret = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(Files::isRegularFile).forEach(path -> {
+                String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                if (globs.matches(name)) {
+                    ret.add(name);
+                }
+            });
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+}
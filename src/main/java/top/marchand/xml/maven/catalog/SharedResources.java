@@ -0,0 +1,80 @@
+package top.marchand.xml.maven.catalog;
+
+import top.marchand.xml.maven.catalog.model.RewriteSystemModel;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches shared by the catalog generations of all modules of an {@link AggregateCatalog} execution.
+ * They are used concurrently, by module generations that run in parallel.
+ */
+final class SharedResources {
+    private final JarInspector jarInspector;
+    private final ResourceExtractor resourceExtractor;
+    private final ConcurrentMap<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * A dependency resolved by a module : the classpath element it has been found in, and its entries.
+     * Another module reuses the entries only if its own lookup finds the dependency in the same element :
+     * modules may have different classpaths, and the last matching element wins.
+     */
+    static final class Resolution {
+        final String location;
+        final List<RewriteSystemModel> entries;
+
+        Resolution(String location, List<RewriteSystemModel> entries) {
+            super();
+            this.location = location;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * @param jarInspector Already loaded, or null if jars without resources are not skipped
+     * @param resourceExtractor Null if resources are not extracted
+     */
+    SharedResources(JarInspector jarInspector, ResourceExtractor resourceExtractor) {
+        super();
+        this.jarInspector = jarInspector;
+        this.resourceExtractor = resourceExtractor;
+    }
+
+    JarInspector getJarInspector() {
+        return jarInspector;
+    }
+
+    ResourceExtractor getResourceExtractor() {
+        return resourceExtractor;
+    }
+
+    /**
+     * @param key The resolution key of the dependency
+     * @return The resolution of the first module that resolved it, or null
+     */
+    Resolution getResolution(String key) {
+        return resolutions.get(key);
+    }
+
+    void putResolution(String key, Resolution resolution) {
+        resolutions.putIfAbsent(key, resolution);
+    }
+
+    /**
+     * @return The number of dependencies resolved by a module, and available to the other ones
+     */
+    int getResolutionsCount() {
+        return resolutions.size();
+    }
+
+    /**
+     * Writes caches, once all modules have been generated.
+     */
+    void store() throws IOException {
+        if (jarInspector != null) {
+            jarInspector.store();
+        }
+    }
+}
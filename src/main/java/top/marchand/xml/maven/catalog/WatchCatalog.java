@@ -0,0 +1,357 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ScopeArtifactFilter;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Generates the catalog, and keeps it up to date until the build is stopped.
+ * <p>
+ * The {@code pom.xml} of the project, of projects whose output is in the classpath, and of their parent
+ * directories, are watched. When one changes, the changed projects are built again with Maven's project
+ * builder, so that their coordinates are interpolated as in the reactor ; other reactor projects keep
+ * their coordinates. Then the project is built again, with its dependencies, and its dependency graph,
+ * classpath and catalog are generated again. The catalog is rewritten only if it has changed.
+ * When {@code generateManifest} is set, {@code target/classes} of these projects are also watched,
+ * and the manifest is rewritten. Changes are debounced, so that a burst of changes, as a full
+ * rebuild of a sibling module, triggers a single rewrite.
+ * <p>
+ * Without a Maven session, projects can not be built again : coordinates of changed projects are read
+ * from their {@code pom.xml}, only the dependencies they declared or now declare are resolved again,
+ * in the same dependency graph, and changes of the project's own dependencies are ignored.
+ */
+@Mojo(
+        name = "watch",
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        threadSafe = true)
+public class WatchCatalog extends Catalog {
+    private static final String LOG_PREFIX = "[catalog] ";
+    /**
+     * How long to wait for a change before checking if watch has to stop, in milliseconds
+     */
+    private static final long POLL_INTERVAL = 250;
+
+    /**
+     * Quiet period after a change, before the catalog is rewritten, in milliseconds.
+     */
+    @Parameter(property = "catalog.watch.debounce", defaultValue = "100")
+    public long watchDebounce;
+
+    /**
+     * How long to watch, in seconds. {@code 0} means until the build is interrupted.
+     */
+    @Parameter(property = "catalog.watch.duration", defaultValue = "0")
+    public long watchDuration;
+
+    @Component
+    private ProjectBuilder projectBuilder;
+
+    private ExecutionContext ctx;
+    private DependencyNode rootNode;
+    private GraphFilter graphFilter;
+    private ResourceGlobs resourceGlobs;
+    /**
+     * Reactor projects, with the coordinates of changed projects built again, or null before any change
+     */
+    private Map<File, MyArtifact> reactorProjects;
+    private WatchService watchService;
+    private final Map<WatchKey, Path> watched = new HashMap<>();
+    private final List<File> projectDirs = new ArrayList<>();
+    private final List<Path> outputs = new ArrayList<>();
+    private volatile boolean stopped;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        // the catalog model is required, and always up to date
+        incremental = false;
+        streamCatalog = false;
+        generate(null);
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            this.watchService = watchService;
+            registerProjects();
+            getLog().info(LOG_PREFIX + "Watching " + watched.size() + " directories for changes");
+            watch();
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    void generated(ExecutionContext ctx, DependencyNode rootNode, GraphFilter graphFilter, ResourceGlobs resourceGlobs) {
+        this.ctx = ctx;
+        this.rootNode = rootNode;
+        this.graphFilter = graphFilter;
+        this.resourceGlobs = resourceGlobs;
+    }
+
+    @Override
+    Map<File, MyArtifact> getReactorProjects() {
+        return reactorProjects != null ? reactorProjects : super.getReactorProjects();
+    }
+
+    /**
+     * Makes {@link #execute()} return, within {@link #POLL_INTERVAL}. Can be called from any thread.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Builds the project of {@code pom} with Maven's project builder, as the reactor does.
+     *
+     * @param resolveDependencies If dependencies have to be resolved, so that the project has a classpath
+     * @return The project, or null if there is no session to build it in
+     * @throws ProjectBuildingException If the project, or its dependencies, can not be built
+     */
+    MavenProject buildProject(File pom, boolean resolveDependencies) throws ProjectBuildingException {
+        if (session == null || projectBuilder == null) {
+            return null;
+        }
+        ProjectBuildingRequest request = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+        request.setResolveDependencies(resolveDependencies);
+        request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+        ProjectBuildingResult result = projectBuilder.build(pom, request);
+        MavenProject ret = result.getProject();
+        if (resolveDependencies) {
+            DependencyResolutionResult resolution = result.getDependencyResolutionResult();
+            if (resolution != null && !resolution.getCollectionErrors().isEmpty()) {
+                Exception error = resolution.getCollectionErrors().get(0);
+                throw new ProjectBuildingException(ret.getId(), error.getMessage(), error);
+            }
+            // as requiresDependencyResolution = COMPILE
+            ret.setArtifactFilter(new ScopeArtifactFilter(Artifact.SCOPE_COMPILE));
+        }
+        return ret;
+    }
+
+    private void watch() throws IOException, InterruptedException {
+        long deadline = watchDuration > 0
+                ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(watchDuration)
+                : Long.MAX_VALUE;
+        Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+        while (!stopped && System.currentTimeMillis() < deadline) {
+            WatchKey key = watchService.poll(changed.isEmpty() && !overflow ? POLL_INTERVAL : watchDebounce, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                if (!changed.isEmpty() || overflow) {
+                    refresh(changed, overflow);
+                    changed.clear();
+                    overflow = false;
+                }
+                continue;
+            }
+            Path dir = watched.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                changed.add(path);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path) && isUnder(path, outputs)) {
+                    register(path, true);
+                }
+            }
+            if (!key.reset()) {
+                watched.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Builds again changed projects, and rewrites the catalog.
+     *
+     * @param overflow If some changes may have been lost
+     */
+    private void refresh(Set<Path> changed, boolean overflow) throws IOException {
+        long start = System.nanoTime();
+        boolean projectChanged = overflow || isPomChanged(changed, project.getBasedir());
+        List<File> changedDirs = new ArrayList<>();
+        for (File dir : projectDirs) {
+            if (overflow || isPomChanged(changed, dir)) {
+                changedDirs.add(dir);
+            }
+        }
+        try {
+            Map<File, MyArtifact> coordinates = new HashMap<>();
+            for (File dir : changedDirs) {
+                MavenProject rebuilt = buildProject(new File(dir, "pom.xml"), false);
+                if (rebuilt != null) {
+                    coordinates.put(dir, new MyArtifact(rebuilt.getGroupId(), rebuilt.getArtifactId(), rebuilt.getVersion()));
+                }
+            }
+            MavenProject rebuilt = projectChanged || !changedDirs.isEmpty()
+                    ? buildProject(project.getFile(), true)
+                    : null;
+            if (rebuilt != null) {
+                // dependencies of the project, and of the changed projects, may have changed
+                Map<File, MyArtifact> updated = new HashMap<>(getReactorProjects());
+                for (Map.Entry<File, MyArtifact> entry : coordinates.entrySet()) {
+                    updated.put(entry.getKey().getAbsoluteFile(), entry.getValue());
+                }
+                reactorProjects = updated;
+                project = rebuilt;
+                generate(null);
+                registerProjects();
+                getLog().info(LOG_PREFIX + "Project built again and catalog refreshed in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                return;
+            }
+            if (projectChanged && !overflow) {
+                getLog().warn(LOG_PREFIX + "pom.xml has changed : restart watch to take changes of dependencies into account");
+            }
+            boolean regenerate = overflow && generateManifest;
+            int invalidated = 0;
+            for (File dir : changedDirs) {
+                invalidated += invalidateProjectDir(ctx, dir, coordinates.get(dir));
+                regenerate = true;
+            }
+            reactorProjects = ctx.getReactorProjects();
+            for (Path path : changed) {
+                regenerate |= isUnder(path, outputs);
+            }
+            if (!regenerate) {
+                return;
+            }
+            regenerate(ctx, rootNode, graphFilter, resourceGlobs);
+            getLog().info(LOG_PREFIX + "Catalog refreshed in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + " ms, " + invalidated + " dependencies resolved again");
+        } catch (ProjectBuildingException | MojoExecutionException ex) {
+            // a file may be saved while being edited : next change will fix it
+            getLog().error(LOG_PREFIX + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return {@code true} if the {@code pom.xml} of {@code dir}, or of its parent directory, has changed
+     */
+    private static boolean isPomChanged(Set<Path> changed, File dir) {
+        return changed.contains(normalize(new File(dir, "pom.xml").toPath()))
+                || dir.getParentFile() != null && changed.contains(normalize(new File(dir.getParentFile(), "pom.xml").toPath()));
+    }
+
+    /**
+     * Watches the project, the projects whose output is in the classpath, their parent directories,
+     * and their outputs if the manifest is generated. Already watched directories are not registered again.
+     */
+    private void registerProjects() throws IOException {
+        for (File dir : getProjectDirs()) {
+            if (!projectDirs.contains(dir)) {
+                projectDirs.add(dir);
+            }
+        }
+        Set<File> dirs = new LinkedHashSet<>();
+        for (File dir : projectDirs) {
+            dirs.add(dir);
+            if (dir.getParentFile() != null) {
+                dirs.add(dir.getParentFile());
+            }
+        }
+        dirs.add(project.getBasedir());
+        if (project.getBasedir().getParentFile() != null) {
+            dirs.add(project.getBasedir().getParentFile());
+        }
+        for (File dir : dirs) {
+            register(dir.toPath(), false);
+        }
+        if (generateManifest) {
+            for (int position : ctx.getClasspathIndex().getProjectOutputs()) {
+                File output = new File(ctx.getClasspathIndex().get(position));
+                Path normalized = normalize(output.toPath());
+                if (output.isDirectory() && !outputs.contains(normalized)) {
+                    outputs.add(normalized);
+                    register(output.toPath(), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Directories of projects whose output ({@code target/classes} or {@code target/*.jar}) is in the classpath
+     */
+    private List<File> getProjectDirs() {
+        List<File> ret = new ArrayList<>();
+        ClasspathIndex classpathIndex = ctx.getClasspathIndex();
+        for (int position : classpathIndex.getProjectOutputs()) {
+            // same as lastProjectOutputMatching
+            File dir = new File(classpathIndex.get(position)).getParentFile().getParentFile();
+            if (dir != null && !ret.contains(dir)) {
+                ret.add(dir);
+            }
+        }
+        return ret;
+    }
+
+    private void register(Path dir, boolean recursive) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> dirs = new ArrayList<>();
+        if (recursive) {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.filter(Files::isDirectory).forEach(dirs::add);
+            }
+        } else {
+            dirs.add(dir);
+        }
+        for (Path path : dirs) {
+            Path normalized = normalize(path);
+            if (watched.containsValue(normalized)) {
+                continue;
+            }
+            WatchKey key = normalized.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watched.put(key, normalized);
+        }
+    }
+
+    private static boolean isUnder(Path path, List<Path> dirs) {
+        for (Path dir : dirs) {
+            if (path.startsWith(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,47 @@
+package top.marchand.xml.maven.catalog;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+/**
+ * StAX factories shared by all executions of the JVM.
+ * <p>
+ * Looking a factory up goes through the {@code javax.xml.stream} service lookup, which
+ * reads system properties and scans the classpath for a provider : in a reactor, that is done once
+ * instead of once per module. Each factory is created on first use only, by a holder class, so
+ * it is thread-safe without locking. Factories are configured before being published and never
+ * changed afterwards, and creating readers or writers from a configured factory is thread-safe.
+ */
+final class XmlFactories {
+
+    private XmlFactories() {
+        super();
+    }
+
+    /**
+     * @return A namespace-aware input factory, that neither reads DTDs nor resolves external entities
+     */
+    static XMLInputFactory inputFactory() {
+        return InputHolder.FACTORY;
+    }
+
+    static XMLOutputFactory outputFactory() {
+        return OutputHolder.FACTORY;
+    }
+
+    private static final class InputHolder {
+        static final XMLInputFactory FACTORY = create();
+
+        private static XMLInputFactory create() {
+            XMLInputFactory ret = XMLInputFactory.newFactory();
+            ret.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            ret.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            ret.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            return ret;
+        }
+    }
+
+    private static final class OutputHolder {
+        static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+    }
+}
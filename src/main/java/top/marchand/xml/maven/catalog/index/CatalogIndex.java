@@ -0,0 +1,303 @@
+package top.marchand.xml.maven.catalog.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a binary catalog index, as written with {@code generateIndex}, without parsing nor copying it.
+ * <p>
+ * File format, big-endian :
+ * <pre>
+ * int    magic ("CIDX")
+ * short  version
+ * short  types count (T)
+ * int    strings count (S)
+ * int    records count (R)
+ * int[T + 1]  index of first record of each {@link EntryType}, then R
+ * (int charOffset, int charLength)[S]  string table
+ * (int keyString, int valueString)[R]  records, sorted by type, then by key
+ * char[] string data, UTF-16
+ * </pre>
+ * Lookups compare the looked up identifier with string data in place, and do not allocate ;
+ * only methods that return strings do.
+ * <p>
+ * Instances are immutable, and thread-safe.
+ */
+public final class CatalogIndex {
+    static final int MAGIC = 0x43494458;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int typesCount;
+    private final int stringsOffset;
+    private final int recordsOffset;
+    private final int charsOffset;
+
+    private CatalogIndex(ByteBuffer buffer) throws IOException {
+        super();
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog index");
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported catalog index version " + version + ", expecting " + VERSION);
+        }
+        typesCount = buffer.getShort(6);
+        int stringsCount = buffer.getInt(8);
+        int recordsCount = buffer.getInt(12);
+        stringsOffset = HEADER_SIZE + 4 * (typesCount + 1);
+        recordsOffset = stringsOffset + 8 * stringsCount;
+        charsOffset = recordsOffset + 8 * recordsCount;
+        if (charsOffset > buffer.limit()) {
+            throw new IOException("Truncated catalog index");
+        }
+    }
+
+    /**
+     * Maps {@code file} in memory.
+     */
+    public static CatalogIndex open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new CatalogIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param buffer Index content, from position 0. It must not be modified afterwards.
+     */
+    public static CatalogIndex wrap(ByteBuffer buffer) throws IOException {
+        return new CatalogIndex(buffer.duplicate());
+    }
+
+    /**
+     * @return Number of entries of {@code type}
+     */
+    public int size(EntryType type) {
+        return end(type) - start(type);
+    }
+
+    public String getKey(EntryType type, int i) {
+        return string(buffer.getInt(record(type, i)));
+    }
+
+    public String getValue(EntryType type, int i) {
+        return string(buffer.getInt(record(type, i) + 4));
+    }
+
+    public int getKeyLength(EntryType type, int i) {
+        return buffer.getInt(stringsOffset + 8 * buffer.getInt(record(type, i)) + 4);
+    }
+
+    /**
+     * @return The position of the first entry of {@code type} whose key is {@code id}, or {@code -1}
+     */
+    public int find(EntryType type, CharSequence id) {
+        int start = start(type);
+        int i = lowerBound(start, end(type), id, id.length());
+        return i < end(type) && compareKey(i, id, id.length()) == 0 ? i - start : -1;
+    }
+
+    /**
+     * @return The position of the entry of {@code type} whose key is the longest prefix of {@code id}, or {@code -1}
+     */
+    public int findLongestPrefix(EntryType type, CharSequence id) {
+        return findLongestPrefix(type, id, id.length());
+    }
+
+    /**
+     * Resolves {@code uri} with {@code uri} entries, then {@code rewriteURI} entries.
+     * Delegates and next catalogs are not followed.
+     *
+     * @return The resolved URI, or {@code null}
+     */
+    public String resolveURI(String uri) {
+        return resolve(EntryType.URI, EntryType.REWRITE_URI, uri);
+    }
+
+    /**
+     * Resolves {@code systemId} with {@code system} entries, then {@code rewriteSystem} entries.
+     * Delegates and next catalogs are not followed.
+     *
+     * @return The resolved URI, or {@code null}
+     */
+    public String resolveSystem(String systemId) {
+        return resolve(EntryType.SYSTEM, EntryType.REWRITE_SYSTEM, systemId);
+    }
+
+    /**
+     * @return The URI of the {@code public} entry for {@code publicId}, or {@code null}
+     */
+    public String resolvePublic(String publicId) {
+        int i = find(EntryType.PUBLIC, publicId);
+        return i >= 0 ? getValue(EntryType.PUBLIC, i) : null;
+    }
+
+    /**
+     * @param type One of the {@code DELEGATE_*} types
+     * @return Catalogs of the entries whose start string matches {@code id}, longest start string first
+     */
+    public List<String> getDelegates(EntryType type, String id) {
+        List<String> ret = new ArrayList<>();
+        int length = id.length();
+        int i;
+        while (length >= 0 && (i = findLongestPrefix(type, id, length)) >= 0) {
+            int keyLength = getKeyLength(type, i);
+            // all entries with this start string
+            for (int j = i; j < size(type) && getKeyLength(type, j) == keyLength
+                    && compareKey(start(type) + j, id, keyLength) == 0; j++) {
+                String catalog = getValue(type, j);
+                if (!ret.contains(catalog)) {
+                    ret.add(catalog);
+                }
+            }
+            length = keyLength - 1;
+        }
+        return ret;
+    }
+
+    /**
+     * @return {@code nextCatalog} entries, in document order
+     */
+    public List<String> getNextCatalogs() {
+        int size = size(EntryType.NEXT_CATALOG);
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<String> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(getValue(EntryType.NEXT_CATALOG, i));
+        }
+        return ret;
+    }
+
+    private String resolve(EntryType exactType, EntryType rewriteType, String id) {
+        int i = find(exactType, id);
+        if (i >= 0) {
+            return getValue(exactType, i);
+        }
+        i = findLongestPrefix(rewriteType, id);
+        if (i >= 0) {
+            return getValue(rewriteType, i) + id.substring(getKeyLength(rewriteType, i));
+        }
+        return null;
+    }
+
+    /**
+     * Searches the longest key that is a prefix of {@code id[0..length]} : the greatest key not after it
+     * is either a prefix of it, or shares a common prefix with it, the only place where a shorter
+     * matching key can be.
+     */
+    private int findLongestPrefix(EntryType type, CharSequence id, int length) {
+        int start = start(type);
+        int end = end(type);
+        while (true) {
+            // greatest key <= id[0..length]
+            int i = upperBound(start, end, id, length) - 1;
+            if (i < start) {
+                return -1;
+            }
+            int keyLength = getKeyLength(type, i - start);
+            int common = commonPrefixLength(i, id, length);
+            if (common == keyLength) {
+                // first entry with this key
+                while (i > start && getKeyLength(type, i - 1 - start) == keyLength && compareKey(i - 1, id, keyLength) == 0) {
+                    i--;
+                }
+                return i - start;
+            }
+            length = common;
+        }
+    }
+
+    private int start(EntryType type) {
+        return type.ordinal() < typesCount ? buffer.getInt(HEADER_SIZE + 4 * type.ordinal()) : 0;
+    }
+
+    private int end(EntryType type) {
+        return type.ordinal() < typesCount ? buffer.getInt(HEADER_SIZE + 4 * (type.ordinal() + 1)) : 0;
+    }
+
+    private int record(EntryType type, int i) {
+        if (i < 0 || i >= size(type)) {
+            throw new IndexOutOfBoundsException(type + "[" + i + "]");
+        }
+        return recordsOffset + 8 * (start(type) + i);
+    }
+
+    /**
+     * @return First record in {@code [from, to[} whose key is not before {@code id[0..length]}
+     */
+    private int lowerBound(int from, int to, CharSequence id, int length) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (compareKey(middle, id, length) < 0) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return First record in {@code [from, to[} whose key is after {@code id[0..length]}
+     */
+    private int upperBound(int from, int to, CharSequence id, int length) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (compareKey(middle, id, length) <= 0) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Compares key of absolute record {@code record} with {@code id[0..length]}, as {@link String#compareTo(String)}.
+     */
+    private int compareKey(int record, CharSequence id, int length) {
+        int string = stringsOffset + 8 * buffer.getInt(recordsOffset + 8 * record);
+        int offset = charsOffset + 2 * buffer.getInt(string);
+        int keyLength = buffer.getInt(string + 4);
+        int max = Math.min(keyLength, length);
+        for (int i = 0; i < max; i++) {
+            char c = buffer.getChar(offset + 2 * i);
+            char d = id.charAt(i);
+            if (c != d) {
+                return c - d;
+            }
+        }
+        return keyLength - length;
+    }
+
+    private int commonPrefixLength(int record, CharSequence id, int length) {
+        int string = stringsOffset + 8 * buffer.getInt(recordsOffset + 8 * record);
+        int offset = charsOffset + 2 * buffer.getInt(string);
+        int max = Math.min(buffer.getInt(string + 4), length);
+        int i = 0;
+        while (i < max && buffer.getChar(offset + 2 * i) == id.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private String string(int string) {
+        int entry = stringsOffset + 8 * string;
+        int offset = charsOffset + 2 * buffer.getInt(entry);
+        char[] chars = new char[buffer.getInt(entry + 4)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(offset + 2 * i);
+        }
+        return new String(chars);
+    }
+}
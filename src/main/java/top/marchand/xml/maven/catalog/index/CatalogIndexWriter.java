@@ -0,0 +1,105 @@
+package top.marchand.xml.maven.catalog.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link CatalogIndex} file.
+ * <p>
+ * Entries are sorted by type, then by key ; entries with the same type and key keep their
+ * insertion order. Each distinct string is stored once.
+ */
+public class CatalogIndexWriter {
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    public CatalogIndexWriter add(EntryType type, String key, String value) {
+        entries.add(new Entry(type, intern(key), intern(value), entries.size()));
+        return this;
+    }
+
+    /**
+     * @return The index file content
+     */
+    public byte[] toByteArray() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        Collections.sort(sorted, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                int ret = e1.type.compareTo(e2.type);
+                if (ret == 0) {
+                    ret = strings.get(e1.key).compareTo(strings.get(e2.key));
+                }
+                return ret != 0 ? ret : Integer.compare(e1.order, e2.order);
+            }
+        });
+        EntryType[] types = EntryType.values();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(CatalogIndex.MAGIC);
+            out.writeShort(CatalogIndex.VERSION);
+            out.writeShort(types.length);
+            out.writeInt(strings.size());
+            out.writeInt(sorted.size());
+            // first record of each type, and records count
+            int record = 0;
+            for (EntryType type : types) {
+                out.writeInt(record);
+                while (record < sorted.size() && sorted.get(record).type == type) {
+                    record++;
+                }
+            }
+            out.writeInt(record);
+            int chars = 0;
+            for (String s : strings) {
+                out.writeInt(chars);
+                out.writeInt(s.length());
+                chars += s.length();
+            }
+            for (Entry entry : sorted) {
+                out.writeInt(entry.key);
+                out.writeInt(entry.value);
+            }
+            for (String s : strings) {
+                out.writeChars(s);
+            }
+        } catch (IOException ex) {
+            // ByteArrayOutputStream does not throw IOException
+            throw new IllegalStateException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private int intern(String s) {
+        String value = s != null ? s : "";
+        Integer ret = stringIds.get(value);
+        if (ret == null) {
+            ret = strings.size();
+            strings.add(value);
+            stringIds.put(value, ret);
+        }
+        return ret;
+    }
+
+    private static class Entry {
+        private final EntryType type;
+        private final int key;
+        private final int value;
+        private final int order;
+
+        private Entry(EntryType type, int key, int value, int order) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package top.marchand.xml.maven.catalog.index;
+
+/**
+ * The kinds of catalog entries stored in a {@link CatalogIndex}. Order is part of the file format :
+ * new types must be appended.
+ */
+public enum EntryType {
+    /** {@code <uri name="key" uri="value"/>} */
+    URI,
+    /** {@code <rewriteURI uriStartString="key" rewritePrefix="value"/>} */
+    REWRITE_URI,
+    /** {@code <system systemId="key" uri="value"/>} */
+    SYSTEM,
+    /** {@code <rewriteSystem systemIdStartString="key" rewritePrefix="value"/>} */
+    REWRITE_SYSTEM,
+    /** {@code <public publicId="key" uri="value"/>} */
+    PUBLIC,
+    /** {@code <delegateURI uriStartString="key" catalog="value"/>} */
+    DELEGATE_URI,
+    /** {@code <delegateSystem systemIdStartString="key" catalog="value"/>} */
+    DELEGATE_SYSTEM,
+    /** {@code <delegatePublic publicIdStartString="key" catalog="value"/>} */
+    DELEGATE_PUBLIC,
+    /** {@code <nextCatalog catalog="value"/>}, key is empty */
+    NEXT_CATALOG
+}
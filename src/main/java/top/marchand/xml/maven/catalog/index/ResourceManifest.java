@@ -0,0 +1,196 @@
+package top.marchand.xml.maven.catalog.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Reads a resource manifest, as written with {@code generateManifest} : the resources of each
+ * cataloged artifact that match the {@code xmlResources} globs, so that the existence of such a resource
+ * can be checked without opening the artifact. Other entries, as classes, are not listed.
+ * <p>
+ * File format, big-endian :
+ * <pre>
+ * int    magic ("CRMF")
+ * short  version
+ * short  reserved
+ * int    prefixes count (P)
+ * int    hashes count (H)
+ * (int charLength, char[charLength])[P]  URI prefixes covered by the manifest, as uriStartString
+ * long[H]  sorted {@link #hash(CharSequence) hashes} of prefix + resource path
+ * </pre>
+ * As resources are stored as 64-bit hashes, {@link #mayBeListed(CharSequence)} may, very rarely, answer
+ * {@code true} for a resource that is not listed ; it never answers {@code false} for a listed one.
+ * <p>
+ * Instances are immutable, and thread-safe.
+ */
+public final class ResourceManifest {
+    static final int MAGIC = 0x43524D46;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ByteBuffer buffer;
+    private final String[] prefixes;
+    /** Distinct prefix lengths, ascending */
+    private final int[] prefixLengths;
+    /** Prefixes by {@link #hash(CharSequence) hash} */
+    private final Map<Long, String[]> prefixesByHash;
+    private final int hashesOffset;
+    private final int hashesCount;
+
+    private ResourceManifest(ByteBuffer buffer) throws IOException {
+        super();
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a resource manifest");
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported resource manifest version " + version + ", expecting " + VERSION);
+        }
+        prefixes = new String[buffer.getInt(8)];
+        hashesCount = buffer.getInt(12);
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < prefixes.length; i++) {
+            int length = buffer.getInt(offset);
+            char[] chars = new char[length];
+            offset += 4;
+            for (int c = 0; c < length; c++, offset += 2) {
+                chars[c] = buffer.getChar(offset);
+            }
+            prefixes[i] = new String(chars);
+        }
+        TreeSet<Integer> lengths = new TreeSet<>();
+        prefixesByHash = new HashMap<>();
+        for (String prefix : prefixes) {
+            lengths.add(prefix.length());
+            prefixesByHash.merge(hash(prefix), new String[] {prefix}, ResourceManifest::concat);
+        }
+        prefixLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        hashesOffset = offset;
+        if (hashesOffset + 8L * hashesCount > buffer.limit()) {
+            throw new IOException("Truncated resource manifest");
+        }
+    }
+
+    /**
+     * Maps {@code file} in memory.
+     */
+    public static ResourceManifest open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new ResourceManifest(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param buffer Manifest content, from position 0. It must not be modified afterwards.
+     */
+    public static ResourceManifest wrap(ByteBuffer buffer) throws IOException {
+        return new ResourceManifest(buffer.duplicate());
+    }
+
+    /**
+     * @return {@code true} if {@code uri} starts with a prefix of the manifest, so that {@link #mayBeListed(CharSequence)}
+     *         tells whether it is listed
+     */
+    public boolean isCovered(CharSequence uri) {
+        // FNV-1a is computed char by char : the hash of each candidate prefix is a step of the hash of uri
+        long hash = FNV_OFFSET;
+        int i = 0;
+        for (int length : prefixLengths) {
+            if (length > uri.length()) {
+                break;
+            }
+            for (; i < length; i++) {
+                hash = step(hash, uri.charAt(i));
+            }
+            String[] candidates = prefixesByHash.get(hash);
+            if (candidates != null) {
+                for (String prefix : candidates) {
+                    if (startsWith(uri, prefix)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Only resources that match the {@code xmlResources} globs are listed : {@code false} does not mean that
+     * the artifact has no such entry, if {@code uri} does not match these globs.
+     *
+     * @return {@code false} if {@code uri} is {@link #isCovered(CharSequence) covered} and is not a listed
+     *         resource, {@code true} otherwise
+     */
+    public boolean mayBeListed(CharSequence uri) {
+        if (!isCovered(uri)) {
+            return true;
+        }
+        long hash = hash(uri);
+        int low = 0;
+        int high = hashesCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(hashesOffset + 8 * mid);
+            if (value < hash) {
+                low = mid + 1;
+            } else if (value > hash) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPrefixesCount() {
+        return prefixes.length;
+    }
+
+    public int getResourcesCount() {
+        return hashesCount;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-16 chars of {@code s}
+     */
+    static long hash(CharSequence s) {
+        long ret = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            ret = step(ret, s.charAt(i));
+        }
+        return ret;
+    }
+
+    private static long step(long hash, char c) {
+        hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+        return (hash ^ (c >>> 8)) * FNV_PRIME;
+    }
+
+    private static String[] concat(String[] a, String[] b) {
+        String[] ret = new String[a.length + b.length];
+        System.arraycopy(a, 0, ret, 0, a.length);
+        System.arraycopy(b, 0, ret, a.length, b.length);
+        return ret;
+    }
+
+    private static boolean startsWith(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (s.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package top.marchand.xml.maven.catalog.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Builds a {@link ResourceManifest} file.
+ */
+public class ResourceManifestWriter {
+    private final Set<String> prefixes = new LinkedHashSet<>();
+    private long[] hashes = new long[64];
+    private int hashesCount;
+
+    /**
+     * Adds the resources of an artifact.
+     *
+     * @param prefix URI prefix of the artifact, as {@code dependency:/org.acme+lib/}
+     * @param paths Resource paths, relative to the artifact root
+     */
+    public ResourceManifestWriter add(String prefix, Collection<String> paths) {
+        prefixes.add(prefix);
+        StringBuilder uri = new StringBuilder(prefix);
+        for (String path : paths) {
+            uri.setLength(prefix.length());
+            if (hashesCount == hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashesCount * 2);
+            }
+            hashes[hashesCount++] = ResourceManifest.hash(uri.append(path));
+        }
+        return this;
+    }
+
+    /**
+     * @return The manifest file content
+     */
+    public byte[] toByteArray() {
+        long[] sorted = Arrays.copyOf(hashes, hashesCount);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || sorted[distinct - 1] != sorted[i]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(ResourceManifest.MAGIC);
+            out.writeShort(ResourceManifest.VERSION);
+            out.writeShort(0);
+            out.writeInt(prefixes.size());
+            out.writeInt(distinct);
+            for (String prefix : prefixes) {
+                out.writeInt(prefix.length());
+                out.writeChars(prefix);
+            }
+            for (int i = 0; i < distinct; i++) {
+                out.writeLong(sorted[i]);
+            }
+        } catch (IOException ex) {
+            // ByteArrayOutputStream does not throw IOException
+            throw new IllegalStateException(ex);
+        }
+        return bytes.toByteArray();
+    }
+}
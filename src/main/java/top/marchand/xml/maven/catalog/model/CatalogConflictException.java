@@ -0,0 +1,27 @@
+package top.marchand.xml.maven.catalog.model;
+
+/**
+ * Thrown when two catalog entries have the same {@code uriStartPrefix} and different targets,
+ * with {@link CatalogModel.ConflictPolicy#FAIL}.
+ */
+public class CatalogConflictException extends RuntimeException {
+    private final RewriteSystemModel existing;
+    private final RewriteSystemModel conflicting;
+
+    public CatalogConflictException(RewriteSystemModel existing, RewriteSystemModel conflicting) {
+        super(existing.getUriStartPrefix() + " is mapped to " + existing.getRewritePrefix()
+                + " (" + existing.getGroupId() + ":" + existing.getArtifactId() + ":" + existing.getVersion() + ")"
+                + " and to " + conflicting.getRewritePrefix()
+                + " (" + conflicting.getGroupId() + ":" + conflicting.getArtifactId() + ":" + conflicting.getVersion() + ")");
+        this.existing = existing;
+        this.conflicting = conflicting;
+    }
+
+    public RewriteSystemModel getExisting() {
+        return existing;
+    }
+
+    public RewriteSystemModel getConflicting() {
+        return conflicting;
+    }
+}
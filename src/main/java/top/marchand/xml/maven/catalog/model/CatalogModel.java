@@ -6,37 +6,132 @@
 package top.marchand.xml.maven.catalog.model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
+ * Catalog entries, by {@code uriStartPrefix}, in insertion order.
+ * <p>
+ * An entry whose prefix is already in catalog is a duplicate if it has the same target,
+ * and is ignored ; otherwise it is a conflict, solved by the {@link ConflictPolicy}.
  *
  * @author cmarchand
  */
 public class CatalogModel implements Serializable {
     
-    private final List<RewriteSystemModel> entries;
+    private final Map<String, RewriteSystemModel> entries;
+    /**
+     * Depth in dependency tree of the node each entry comes from
+     */
+    private final Map<String, Integer> depths;
+    private final ConflictPolicy conflictPolicy;
     
     public CatalogModel() {
+        this(ConflictPolicy.FIRST_WINS);
+    }
+
+    public CatalogModel(ConflictPolicy conflictPolicy) {
         super();
-        entries = new ArrayList<>();
+        this.entries = new LinkedHashMap<>();
+        this.depths = new HashMap<>();
+        this.conflictPolicy = conflictPolicy != null ? conflictPolicy : ConflictPolicy.FIRST_WINS;
+    }
+
+    /**
+     * @return Entries, in the order their prefix has first been added
+     */
+    public Collection<RewriteSystemModel> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Adds an entry, unless an entry with the same prefix wins over it.
+     *
+     * @param rsm The entry
+     * @param depth The depth in dependency tree of the node {@code rsm} comes from,
+     *              used by {@link ConflictPolicy#NEAREST_WINS}
+     * @return {@code true} if entry has been added, or has replaced an entry with the same prefix
+     * @throws CatalogConflictException If policy is {@link ConflictPolicy#FAIL} and an entry with
+     *              the same prefix has a different target
+     */
+    public boolean add(RewriteSystemModel rsm, int depth) {
+        String prefix = rsm.getUriStartPrefix();
+        RewriteSystemModel existing = entries.get(prefix);
+        if (existing == null) {
+            entries.put(prefix, rsm);
+            depths.put(prefix, depth);
+            return true;
+        }
+        if (existing.equals(rsm)) {
+            if (depth < depths.get(prefix)) {
+                depths.put(prefix, depth);
+            }
+            return false;
+        }
+        switch (conflictPolicy) {
+            case FAIL:
+                throw new CatalogConflictException(existing, rsm);
+            case NEAREST_WINS:
+                if (depth < depths.get(prefix)) {
+                    // put on an existing key keeps its position
+                    entries.put(prefix, rsm);
+                    depths.put(prefix, depth);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return The depth of the entry with {@code prefix}, or {@code -1} if there is none
+     */
+    public int getDepth(final String prefix) {
+        Integer ret = depths.get(prefix);
+        return ret != null ? ret : -1;
+    }
+
+    public RewriteSystemModel get(final String prefix) {
+        return entries.get(prefix);
+    }
+
+    public int size() {
+        return entries.size();
     }
 
-    public List<RewriteSystemModel> getEntries() {
-        return entries;
+    public ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
     }
 
     @Override
     public String toString() {
-        return "CatalogModel{" + "entries=\n" + entries + '}';
+        return "CatalogModel{" + "entries=\n" + entries.values() + '}';
     }
     
     public boolean containsUriStartPrefix(final String prefix) {
-        for(RewriteSystemModel rsm:entries) {
-            if(rsm.getUriStartPrefix().equals(prefix)) return true;
-        }
-        return false;
+        return entries.containsKey(prefix);
+    }
+
+    /**
+     * How to choose between two entries with the same {@code uriStartPrefix} and different targets.
+     */
+    public enum ConflictPolicy {
+        /**
+         * The first added entry is kept. This is what resolvers do with duplicated prefixes.
+         */
+        FIRST_WINS,
+        /**
+         * The entry that comes from the dependency nearest to the project is kept,
+         * the first one if both are at the same depth. This is how Maven mediates versions.
+         */
+        NEAREST_WINS,
+        /**
+         * Generation fails.
+         */
+        FAIL
     }
-    
-    
 }
@@ -0,0 +1,135 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class AggregateCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAggregate() throws Exception {
+        File basedir = folder.newFolder();
+        File repository = new File(basedir, "repository");
+        Artifact parentArtifact = artifact("top.marchand.test", "parent", "1.0", null);
+        Artifact firstArtifact = artifact("top.marchand.test", "first", "1.0", null);
+        Artifact secondArtifact = artifact("top.marchand.test", "second", "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.0", null);
+        Artifact other = artifact("org.acme", "other", "1.0", null);
+        jar(new File(repositoryPath(repository, lib)), "xsl/main.xsl");
+        jar(new File(repositoryPath(repository, other)), "xsl/other.xsl");
+        DependencyNode firstRoot = node(null, firstArtifact);
+        node(firstRoot, lib);
+        DependencyNode secondRoot = node(null, secondArtifact);
+        node(secondRoot, lib);
+        node(secondRoot, other);
+        MavenProject first = project(new File(basedir, "first"), firstArtifact,
+                Arrays.asList(repositoryPath(repository, lib)));
+        MavenProject second = project(new File(basedir, "second"), secondArtifact,
+                Arrays.asList(repositoryPath(repository, lib), repositoryPath(repository, other)));
+        Map<MavenProject, DependencyNode> roots = new HashMap<>();
+        roots.put(first, firstRoot);
+        roots.put(second, secondRoot);
+
+        AggregateCatalog aggregate = new AggregateCatalog();
+        aggregate.project = project(basedir, parentArtifact, Arrays.<String>asList());
+        aggregate.modules = Arrays.asList(first, second);
+        aggregate.removeDoctype = true;
+        aggregate.catalogFileName = "catalog.xml";
+        aggregate.sharedCatalogFileName = "target/shared-catalog.xml";
+        aggregate.extractResources = true;
+        aggregate.skipJarsWithoutResources = true;
+        aggregate.metricsReport = true;
+        // second module is generated after first one, and reuses its resolution of lib
+        aggregate.moduleThreads = 1;
+        aggregate.setDependencyGraphBuilder(graphBuilder(roots));
+        aggregate.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        aggregate.execute();
+
+        // resources are extracted once, under the top-level project
+        File libDir = new File(basedir, "target/catalog-resources/org.acme/lib/2.0/lib-2.0.jar");
+        Assert.assertTrue(new File(libDir, "xsl/main.xsl").isFile());
+        Assert.assertFalse(new File(basedir, "first/target/catalog-resources").exists());
+        String content = read(new File(basedir, "first/catalog.xml"));
+        Assert.assertTrue(content, content.contains("rewritePrefix=\"" + libDir.toURI() + "\""));
+        Assert.assertFalse(content, content.contains("dependency:/org.acme+other/"));
+        content = read(new File(basedir, "second/catalog.xml"));
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+lib/"));
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+other/"));
+        content = read(new File(basedir, "target/shared-catalog.xml"));
+        Assert.assertEquals(content, 1, countEntries(content, "dependency:/org.acme+lib/"));
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+other/"));
+        Assert.assertFalse(new File(basedir, "catalog.xml").exists());
+
+        // lib and other are inspected once, second module looks lib up and finds the same jar
+        String json = read(new File(basedir, "target/catalogBuilder/aggregate.metrics.json"));
+        Assert.assertTrue(json, json.contains("\"modules\": 2,"));
+        Assert.assertTrue(json, json.contains("\"sharedResolutions\": 2,"));
+        Assert.assertTrue(json, json.contains("\"jarsInspected\": 2,"));
+        json = read(new File(basedir, "second/target/catalogBuilder/catalog.xml.metrics.json"));
+        Assert.assertTrue(json, json.contains("\"dependenciesShared\": 1,"));
+        Assert.assertTrue(json, json.contains("\"classpathLookups\": 2,"));
+        Assert.assertTrue(json, json.contains("\"jarsInspected\": 0,"));
+    }
+
+    @Test
+    public void testSameDependencyInDifferentLocations() throws Exception {
+        File basedir = folder.newFolder();
+        File repository = new File(basedir, "repository");
+        File otherRepository = new File(basedir, "other-repository");
+        Artifact parentArtifact = artifact("top.marchand.test", "parent", "1.0", null);
+        Artifact firstArtifact = artifact("top.marchand.test", "first", "1.0", null);
+        Artifact secondArtifact = artifact("top.marchand.test", "second", "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.0", null);
+        String libPath = repositoryPath(repository, lib);
+        String otherLibPath = repositoryPath(otherRepository, lib);
+        jar(new File(libPath), "xsl/main.xsl");
+        jar(new File(otherLibPath), "xsl/main.xsl");
+        DependencyNode firstRoot = node(null, firstArtifact);
+        node(firstRoot, lib);
+        DependencyNode secondRoot = node(null, secondArtifact);
+        node(secondRoot, lib);
+        MavenProject first = project(new File(basedir, "first"), firstArtifact, Arrays.asList(libPath));
+        // second module also has the jar of first one, but the last match wins
+        MavenProject second = project(new File(basedir, "second"), secondArtifact,
+                Arrays.asList(libPath, otherLibPath));
+        Map<MavenProject, DependencyNode> roots = new HashMap<>();
+        roots.put(first, firstRoot);
+        roots.put(second, secondRoot);
+
+        AggregateCatalog aggregate = new AggregateCatalog();
+        aggregate.project = project(basedir, parentArtifact, Arrays.<String>asList());
+        aggregate.modules = Arrays.asList(first, second);
+        aggregate.removeDoctype = true;
+        aggregate.catalogFileName = "catalog.xml";
+        aggregate.metricsReport = true;
+        aggregate.moduleThreads = 1;
+        aggregate.setDependencyGraphBuilder(graphBuilder(roots));
+        aggregate.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        aggregate.execute();
+
+        String content = read(new File(basedir, "first/catalog.xml"));
+        Assert.assertTrue(content, content.contains("rewritePrefix=\"jar:file:" + libPath + "!/\""));
+        content = read(new File(basedir, "second/catalog.xml"));
+        Assert.assertTrue(content, content.contains("rewritePrefix=\"jar:file:" + otherLibPath + "!/\""));
+        Assert.assertFalse(content, content.contains("rewritePrefix=\"jar:file:" + libPath + "!/\""));
+        String json = read(new File(basedir, "second/target/catalogBuilder/catalog.xml.metrics.json"));
+        Assert.assertTrue(json, json.contains("\"dependenciesShared\": 0,"));
+    }
+}
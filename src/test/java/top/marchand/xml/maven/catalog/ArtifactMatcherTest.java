@@ -0,0 +1,61 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ArtifactMatcherTest {
+
+    @Test
+    public void testLegacyRules() {
+        ArtifactMatcher matcher = ArtifactMatcher.compile(Arrays.asList(
+                "top.marchand:lib", "*:schemas", "org.acme:*"));
+        Assert.assertEquals("top.marchand:lib", matcher.findMatch("top.marchand", "lib"));
+        Assert.assertEquals("*:schemas", matcher.findMatch("com.foo", "schemas"));
+        Assert.assertEquals("org.acme:*", matcher.findMatch("org.acme", "anything"));
+        Assert.assertNull(matcher.findMatch("top.marchand", "lib2"));
+        Assert.assertNull(matcher.findMatch("org.acme.sub", "lib"));
+    }
+
+    @Test
+    public void testGlobs() {
+        ArtifactMatcher matcher = ArtifactMatcher.compile(Arrays.asList(
+                "com.acme.*:*-schemas", "*:xslt-?", "*:*-bar*", "not-a-rule"));
+        Assert.assertEquals("com.acme.*:*-schemas", matcher.findMatch("com.acme.xml", "common-schemas"));
+        Assert.assertNull(matcher.findMatch("com.acme", "common-schemas"));
+        Assert.assertNull(matcher.findMatch("com.acme.xml", "common-schemas-2"));
+        Assert.assertEquals("*:xslt-?", matcher.findMatch("org.foo", "xslt-3"));
+        Assert.assertNull(matcher.findMatch("org.foo", "xslt-30"));
+        Assert.assertEquals("*:*-bar*", matcher.findMatch("org.foo", "foo-bar-baz"));
+        Assert.assertNull(matcher.findMatch("not-a-rule", ""));
+        // * never spans the groupId / artifactId separator
+        Assert.assertNull(ArtifactMatcher.compile(Arrays.asList("com.*-schemas:*")).findMatch("com.acme", "x-schemas"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(ArtifactMatcher.compile(null).isEmpty());
+        Assert.assertFalse(ArtifactMatcher.compile(null).matches("g", "a"));
+        Assert.assertFalse(ArtifactMatcher.compile(Arrays.asList("*:*")).isEmpty());
+    }
+
+    @Test
+    public void testAnyMatchesEverything() {
+        // never matched before globs were supported
+        ArtifactMatcher matcher = ArtifactMatcher.compile(Arrays.asList("*:*"));
+        Assert.assertEquals("*:*", matcher.findMatch("g", "a"));
+        Assert.assertEquals("*:*", matcher.findMatch("org.acme", "lib"));
+    }
+
+    @Test
+    public void testAffixIndexes() {
+        ArtifactMatcher matcher = ArtifactMatcher.compile(Arrays.asList(
+                "*:xml-*", "*.acme:*", "*:*-bar*"));
+        Assert.assertEquals("*:xml-*", matcher.findMatch("org.foo", "xml-schemas"));
+        Assert.assertNull(matcher.findMatch("org.foo", "xsl-schemas"));
+        Assert.assertEquals("*.acme:*", matcher.findMatch("com.acme", "lib"));
+        Assert.assertNull(matcher.findMatch("com.acme.sub", "lib"));
+        Assert.assertEquals("*:*-bar*", matcher.findMatch("org.foo", "foo-bar"));
+    }
+}
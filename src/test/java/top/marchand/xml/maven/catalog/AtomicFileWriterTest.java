@@ -0,0 +1,32 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class AtomicFileWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteIfChanged() throws Exception {
+        File target = new File(folder.getRoot(), "sub/catalog.xml");
+        byte[] content = "<catalog/>".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(AtomicFileWriter.writeIfChanged(target, content));
+        Assert.assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        target.setLastModified(1000L);
+        Assert.assertFalse(AtomicFileWriter.writeIfChanged(target, content));
+        Assert.assertEquals(1000L, target.lastModified());
+        byte[] other = "<catalog></catalog>".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(AtomicFileWriter.writeIfChanged(target, other));
+        Assert.assertArrayEquals(other, Files.readAllBytes(target.toPath()));
+        // no temporary file is left
+        Assert.assertEquals(1, target.getParentFile().list().length);
+    }
+}
@@ -0,0 +1,88 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+/**
+ * Runs many executions in parallel, as {@code mvn -T} does, and checks they all generate
+ * the same catalog as a sequential execution.
+ */
+public class CatalogConcurrencyTest {
+    private static final int EXECUTIONS = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Catalog createExecution(File reactor, File repository, int i) throws Exception {
+        Artifact projectArtifact = artifact("top.marchand.test", "project-" + i, "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.1", null);
+        Artifact sibling = artifact("top.marchand.test", "sibling", "1.0", null);
+        Artifact jwd = artifact("org.acme", "bundle", "3.0", "jar-with-dependencies");
+        Artifact inBundle = artifact("org.acme", "bundled", "1.2", null);
+        DependencyNode root = node(null, projectArtifact);
+        node(root, lib);
+        node(root, sibling);
+        node(node(root, jwd), inBundle);
+        List<String> classpath = new ArrayList<>();
+        classpath.add(repositoryPath(repository, lib));
+        classpath.add(new File(reactor, "sibling/target/classes").getAbsolutePath());
+        classpath.add(repositoryPath(repository, jwd));
+        File basedir = new File(reactor, "project-" + i);
+        basedir.mkdirs();
+        return catalog(project(basedir, projectArtifact, classpath), root);
+    }
+
+    @Test
+    public void testParallelExecutions() throws Exception {
+        final File reactor = folder.newFolder("reactor");
+        final File repository = folder.newFolder("repository");
+        Files.write(new File(reactor, "pom.xml").toPath(),
+                ("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><groupId>top.marchand.test</groupId>"
+                        + "<artifactId>reactor</artifactId><version>1.0</version></project>").getBytes(StandardCharsets.UTF_8));
+        module(reactor, null, "sibling", null);
+
+        Catalog reference = createExecution(reactor, repository, -1);
+        reference.catalogFileName = "catalog.xml";
+        reference.execute();
+        final String expected = read(reference);
+        Assert.assertTrue(expected, expected.contains("dependency:/top.marchand.test+sibling/"));
+        Assert.assertTrue(expected, expected.contains("dependency:/org.acme+bundled/"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < EXECUTIONS; i++) {
+                final Catalog catalog = createExecution(reactor, repository, i);
+                catalog.catalogFileName = "catalog.xml";
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        catalog.execute();
+                        return read(catalog);
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                Assert.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds mojo executions without Maven : projects, dependency graphs and classpaths.
+ */
+class CatalogFixtures {
+
+    static Artifact artifact(String groupId, String artifactId, String version, String classifier) {
+        return new DefaultArtifact(groupId, artifactId, version, "compile", "jar", classifier, new DefaultArtifactHandler("jar"));
+    }
+
+    /**
+     * Creates a node, and appends it to its parent's children.
+     */
+    static DependencyNode node(DependencyNode parent, Artifact artifact) {
+        DefaultDependencyNode ret = new DefaultDependencyNode(parent, artifact, null, null, null);
+        ret.setChildren(new ArrayList<DependencyNode>());
+        if (parent != null) {
+            List<DependencyNode> children = new ArrayList<>(parent.getChildren());
+            children.add(ret);
+            ((DefaultDependencyNode) parent).setChildren(children);
+        }
+        return ret;
+    }
+
+    /**
+     * The path of an artifact in a local repository, with the standard layout.
+     */
+    static String repositoryPath(File repository, Artifact artifact) {
+        File dir = new File(repository, artifact.getGroupId().replace('.', File.separatorChar));
+        dir = new File(new File(dir, artifact.getArtifactId()), artifact.getBaseVersion());
+        String name = artifact.getArtifactId() + "-" + artifact.getVersion()
+                + (artifact.getClassifier() != null ? "-" + artifact.getClassifier() : "") + ".jar";
+        return new File(dir, name).getAbsolutePath();
+    }
+
+    /**
+     * Creates a module directory, with its {@code pom.xml} and {@code target/classes}.
+     * {@code groupId} and {@code version} may be null, if inherited from {@code ../pom.xml}.
+     */
+    static File module(File parent, String groupId, String artifactId, String version) throws IOException {
+        File dir = new File(parent, artifactId);
+        new File(dir, "target/classes").mkdirs();
+        StringBuilder pom = new StringBuilder("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">");
+        if (groupId != null) {
+            pom.append("<groupId>").append(groupId).append("</groupId>");
+        }
+        pom.append("<artifactId>").append(artifactId).append("</artifactId>");
+        if (version != null) {
+            pom.append("<version>").append(version).append("</version>");
+        }
+        pom.append("</project>");
+        Files.write(new File(dir, "pom.xml").toPath(), pom.toString().getBytes(StandardCharsets.UTF_8));
+        return dir;
+    }
+
+    static MavenProject project(File basedir, Artifact artifact, final List<String> classpath) {
+        MavenProject project = new MavenProject() {
+            @Override
+            public List<String> getCompileClasspathElements() {
+                return classpath;
+            }
+        };
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setArtifact(artifact);
+        project.setGroupId(artifact.getGroupId());
+        project.setArtifactId(artifact.getArtifactId());
+        project.setVersion(artifact.getVersion());
+        project.getBuild().setDirectory(new File(basedir, "target").getAbsolutePath());
+        return project;
+    }
+
+    static DependencyGraphBuilder graphBuilder(final DependencyNode root) {
+        return new DependencyGraphBuilder() {
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter) {
+                return root;
+            }
+
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter, Collection<MavenProject> reactorProjects) {
+                return root;
+            }
+        };
+    }
+
+    /**
+     * @return A graph builder that returns the root of each project of {@code roots}
+     */
+    static DependencyGraphBuilder graphBuilder(final Map<MavenProject, DependencyNode> roots) {
+        return new DependencyGraphBuilder() {
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter) {
+                return roots.get(project);
+            }
+
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter, Collection<MavenProject> reactorProjects) {
+                return roots.get(project);
+            }
+        };
+    }
+
+    static Catalog catalog(MavenProject project, DependencyNode root) {
+        Catalog catalog = new Catalog();
+        catalog.project = project;
+        catalog.removeDoctype = true;
+        catalog.setDependencyGraphBuilder(graphBuilder(root));
+        catalog.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        return catalog;
+    }
+
+    /**
+     * Creates a jar, with entries named as {@code names}, whose content is their name.
+     */
+    static File jar(File file, String... names) throws IOException {
+        file.getParentFile().mkdirs();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            for (String name : names) {
+                zos.putNextEntry(new ZipEntry(name));
+                zos.write(name.getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The content of the catalog written by {@code catalog}
+     */
+    static String read(Catalog catalog) throws IOException {
+        return read(new File(catalog.project.getBasedir(), catalog.catalogFileName));
+    }
+
+    /**
+     * @return The number of entries of {@code content} whose uriStartString is {@code prefix}
+     */
+    static int countEntries(String content, String prefix) {
+        String attribute = "uriStartString=\"" + prefix + "\"";
+        int ret = 0;
+        for (int i = content.indexOf(attribute); i >= 0; i = content.indexOf(attribute, i + 1)) {
+            ret++;
+        }
+        return ret;
+    }
+
+    /**
+     * A project {@code top.marchand.test:project:1.0} in a directory, with a dependency graph and a classpath
+     * of jars in {@code <basedir>/repository}.
+     */
+    static final class TestProject {
+        final File basedir;
+        final File repository;
+        final DependencyNode root;
+        private final List<String> classpath = new ArrayList<>();
+
+        TestProject(File basedir) {
+            super();
+            this.basedir = basedir;
+            this.repository = new File(basedir, "repository");
+            this.root = node(null, artifact("top.marchand.test", "project", "1.0", null));
+        }
+
+        /**
+         * Adds {@code artifact} under {@code parent} in the graph, and its jar to classpath.
+         * The jar is created with {@code entries}, if any.
+         */
+        DependencyNode dependency(DependencyNode parent, Artifact artifact, String... entries) throws IOException {
+            String path = path(artifact);
+            classpath.add(path);
+            if (entries.length > 0) {
+                jar(new File(path), entries);
+            }
+            return node(parent, artifact);
+        }
+
+        /**
+         * Adds a directory to classpath, as the {@code target/classes} of a reactor module.
+         */
+        void output(File directory) {
+            classpath.add(directory.getAbsolutePath());
+        }
+
+        /**
+         * @return The path of {@code artifact} in repository
+         */
+        String path(Artifact artifact) {
+            return repositoryPath(repository, artifact);
+        }
+
+        /**
+         * @return An execution that writes {@code catalog.xml}
+         */
+        Catalog catalog() {
+            Catalog ret = CatalogFixtures.catalog(project(basedir, root.getArtifact(), classpath), root);
+            ret.catalogFileName = "catalog.xml";
+            return ret;
+        }
+    }
+}
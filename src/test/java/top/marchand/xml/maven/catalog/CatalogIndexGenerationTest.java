@@ -0,0 +1,111 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import top.marchand.xml.maven.catalog.index.CatalogIndex;
+import top.marchand.xml.maven.catalog.index.EntryType;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+/**
+ * The binary index written next to the catalog, with {@code generateIndex}.
+ */
+public class CatalogIndexGenerationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DelegateEntry delegate(String startString, String catalog) {
+        DelegateEntry ret = new DelegateEntry();
+        ret.setStartString(startString);
+        ret.setCatalog(catalog);
+        return ret;
+    }
+
+    /**
+     * Every element of catalog.xml is found in catalog.idx
+     */
+    @Test
+    public void testIndexRoundTrip() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        File basedir = project.basedir;
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null));
+        project.dependency(project.root, artifact("org.acme", "lib-tool", "1.0", null));
+        Catalog catalog = project.catalog();
+        catalog.catalogFileName = "target/catalog.xml";
+        catalog.generateIndex = true;
+        catalog.generates = Arrays.asList("rewriteURI", "rewriteSystem", "uri", "system", "public");
+        catalog.delegatesURI = Arrays.asList(delegate("http://www.acme.org/", "acme.xml"));
+        catalog.delegatesSystem = Arrays.asList(delegate("http://www.acme.org/dtd/", "acme-dtd.xml"));
+        catalog.delegatesPublic = Arrays.asList(delegate("-//ACME//", "acme-public.xml"));
+        catalog.nextCatalogs = Arrays.asList("next.xml", "last.xml");
+        catalog.execute();
+
+        CatalogIndex index = CatalogIndex.open(new File(basedir, "target/catalog.idx"));
+        NodeList elements = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(basedir, "target/catalog.xml")).getDocumentElement().getChildNodes();
+        int count = 0;
+        List<String> nextCatalogs = new ArrayList<>();
+        for (int i = 0; i < elements.getLength(); i++) {
+            if (!(elements.item(i) instanceof Element)) {
+                continue;
+            }
+            Element element = (Element) elements.item(i);
+            count++;
+            switch (element.getLocalName() != null ? element.getLocalName() : element.getTagName()) {
+                case "rewriteURI":
+                    Assert.assertEquals(element.getAttribute("rewritePrefix") + "a.xsl",
+                            index.resolveURI(element.getAttribute("uriStartString") + "a.xsl"));
+                    break;
+                case "rewriteSystem":
+                    Assert.assertEquals(element.getAttribute("rewritePrefix") + "a.dtd",
+                            index.resolveSystem(element.getAttribute("systemIdStartString") + "a.dtd"));
+                    break;
+                case "uri":
+                    Assert.assertEquals(element.getAttribute("uri"), index.resolveURI(element.getAttribute("name")));
+                    break;
+                case "system":
+                    Assert.assertEquals(element.getAttribute("uri"), index.resolveSystem(element.getAttribute("name")));
+                    break;
+                case "public":
+                    Assert.assertEquals(element.getAttribute("uri"), index.resolvePublic(element.getAttribute("publicId")));
+                    break;
+                case "delegateURI":
+                    Assert.assertEquals(Arrays.asList(element.getAttribute("catalog")),
+                            index.getDelegates(EntryType.DELEGATE_URI, element.getAttribute("uriStartString") + "a.xsd"));
+                    break;
+                case "delegateSystem":
+                    Assert.assertEquals(Arrays.asList(element.getAttribute("catalog")),
+                            index.getDelegates(EntryType.DELEGATE_SYSTEM, element.getAttribute("systemIdStartString") + "a.dtd"));
+                    break;
+                case "delegatePublic":
+                    Assert.assertEquals(Arrays.asList(element.getAttribute("catalog")),
+                            index.getDelegates(EntryType.DELEGATE_PUBLIC, element.getAttribute("publicIdStartString") + "DTD"));
+                    break;
+                case "nextCatalog":
+                    nextCatalogs.add(element.getAttribute("catalog"));
+                    break;
+                default:
+                    Assert.fail("unexpected " + element.getTagName());
+            }
+        }
+        Assert.assertEquals(2 * 5 + 3 + 2, count);
+        int indexed = 0;
+        for (EntryType type : EntryType.values()) {
+            indexed += index.size(type);
+        }
+        Assert.assertEquals(count, indexed);
+        Assert.assertEquals(nextCatalogs, index.getNextCatalogs());
+    }
+}
@@ -15,14 +15,27 @@
  */
 package top.marchand.xml.maven.catalog;
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import top.marchand.xml.maven.catalog.model.CatalogModel;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
 
 /**
  *
  * @author cmarchand
  */
 public class CatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
     
     @Test
     public void testBuildPattern() {
@@ -34,5 +47,133 @@ public class CatalogTest {
         Assert.assertEquals("dependency:/groupe+artifact/", catalog.buildPattern("standard", groupId, artifactId, version));
         Assert.assertEquals("dependency:/groupe+artifact$1.0.0/", catalog.buildPattern("full", groupId, artifactId, version));
     }
-    
+
+    /**
+     * lib 1.0 is embedded in a jar-with-dependencies, and lib 2.0 is a direct dependency :
+     * both produce dependency:/org.acme+lib/
+     */
+    private TestProject conflictingProject() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        node(project.dependency(project.root, artifact("org.acme", "bundle", "1.0", "jar-with-dependencies")),
+                artifact("org.acme", "lib", "1.0", null));
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null));
+        return project;
+    }
+
+    private static String entry(String prefix, String rewritePrefix) {
+        return "uriStartString=\"" + prefix + "\" rewritePrefix=\"" + rewritePrefix;
+    }
+
+    @Test
+    public void testConflictPolicy() throws Exception {
+        TestProject project = conflictingProject();
+        String bundle = "jar:file:" + project.path(artifact("org.acme", "bundle", "1.0", "jar-with-dependencies"));
+        String lib = "jar:file:" + project.path(artifact("org.acme", "lib", "2.0", null));
+        Catalog catalog = project.catalog();
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.FIRST_WINS;
+        catalog.execute();
+        String content = read(catalog);
+        Assert.assertEquals(content, 1, countEntries(content, "dependency:/org.acme+lib/"));
+        Assert.assertTrue(content, content.contains(entry("dependency:/org.acme+lib/", bundle)));
+
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.NEAREST_WINS;
+        catalog.execute();
+        content = read(catalog);
+        Assert.assertEquals(content, 1, countEntries(content, "dependency:/org.acme+lib/"));
+        Assert.assertTrue(content, content.contains(entry("dependency:/org.acme+lib/", lib)));
+
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.FAIL;
+        try {
+            catalog.execute();
+            Assert.fail("conflict not detected");
+        } catch (MojoExecutionException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("dependency:/org.acme+lib/"));
+        }
+    }
+
+    @Test
+    public void testStreamCatalog() throws Exception {
+        TestProject project = conflictingProject();
+        Catalog catalog = project.catalog();
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.FIRST_WINS;
+        catalog.generateOxygenCatalog = true;
+        catalog.nextCatalogs = Arrays.asList("next.xml");
+        catalog.execute();
+        String expected = read(catalog);
+        File oxygen = new File(project.basedir, "catalog-oxygen.xml");
+        String expectedOxygen = read(oxygen);
+        Assert.assertTrue(new File(project.basedir, "catalog.xml").delete());
+
+        catalog.streamCatalog = true;
+        catalog.execute();
+        Assert.assertEquals(expected, read(catalog));
+        Assert.assertEquals(expectedOxygen, read(oxygen));
+
+        // without deduplication, both entries are written, in tree order
+        catalog.streamDeduplication = false;
+        catalog.execute();
+        String content = read(catalog);
+        Assert.assertEquals(content, 2, countEntries(content, "dependency:/org.acme+lib/"));
+        Assert.assertTrue(content, content.indexOf("/org/acme/bundle/") < content.indexOf("/org/acme/lib/2.0/"));
+        File[] files = project.basedir.listFiles((dir, name) -> name.endsWith(".tmp"));
+        Assert.assertEquals(0, files.length);
+    }
+
+    /**
+     * lib is reached through a, b and c, and is also embedded in a jar-with-dependencies
+     */
+    @Test
+    public void testDependenciesAreResolvedOnce() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        Artifact lib = artifact("org.acme", "lib", "1.0", null);
+        node(project.dependency(project.root, artifact("org.acme", "bundle", "1.0", "jar-with-dependencies")), lib);
+        for (String name : Arrays.asList("a", "b", "c")) {
+            node(node(project.root, artifact("org.acme", name, "1.0", null)), lib);
+        }
+        project.dependency(project.root, lib);
+        Catalog catalog = project.catalog();
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.NEAREST_WINS;
+        catalog.metricsReport = true;
+        catalog.execute();
+
+        String json = read(new File(project.basedir, "target/catalogBuilder/catalog.xml.metrics.json"));
+        // bundle, lib in bundle, a, b, c, and lib once
+        Assert.assertTrue(json, json.contains("\"dependenciesProcessed\": 9,"));
+        Assert.assertTrue(json, json.contains("\"dependenciesReused\": 3,"));
+        // the direct lib is the nearest one, and is not mistaken for the one in bundle
+        String content = read(catalog);
+        Assert.assertTrue(content, content.contains(entry("dependency:/org.acme+lib/", "jar:file:" + project.path(lib))));
+    }
+
+    /**
+     * Streamed without deduplication, resolved entries are written and not kept
+     */
+    @Test
+    public void testStreamedEntriesAreNotKept() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        Artifact lib = artifact("org.acme", "lib", "1.0", null);
+        for (String name : Arrays.asList("a", "b", "c")) {
+            node(node(project.root, artifact("org.acme", name, "1.0", null)), lib);
+        }
+        project.dependency(project.root, lib);
+        Catalog catalog = project.catalog();
+        catalog.conflictPolicy = CatalogModel.ConflictPolicy.FIRST_WINS;
+        catalog.streamCatalog = true;
+        catalog.streamDeduplication = false;
+        catalog.metricsReport = true;
+        catalog.execute();
+
+        String json = read(new File(project.basedir, "target/catalogBuilder/catalog.xml.metrics.json"));
+        Assert.assertTrue(json, json.contains("\"dependenciesReused\": 0,"));
+        String content = read(catalog);
+        Assert.assertEquals(content, 4, countEntries(content, "dependency:/org.acme+lib/"));
+
+        // deduplicated : later occurrences are reused, and dropped
+        catalog.streamDeduplication = true;
+        catalog.execute();
+        json = read(new File(project.basedir, "target/catalogBuilder/catalog.xml.metrics.json"));
+        Assert.assertTrue(json, json.contains("\"dependenciesReused\": 3,"));
+        content = read(catalog);
+        Assert.assertEquals(content, 1, countEntries(content, "dependency:/org.acme+lib/"));
+    }
 }
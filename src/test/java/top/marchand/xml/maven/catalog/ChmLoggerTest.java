@@ -0,0 +1,71 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChmLoggerTest {
+    private static final int CALLS = 100_000;
+
+    @Test
+    public void testEnablement() {
+        ChmLogger logger = new ChmLogger(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        Assert.assertFalse(logger.isEnabled(ChmLogger.LogReason.DEPENDENCY));
+        logger.enableReason(ChmLogger.LogReason.DEPENDENCY, true);
+        logger.enableReason(ChmLogger.LogReason.MATCHES, true);
+        Assert.assertTrue(logger.isEnabled(ChmLogger.LogReason.DEPENDENCY));
+        Assert.assertFalse(logger.isEnabled(ChmLogger.LogReason.VISITING));
+        // log is at WARN level
+        Assert.assertFalse(logger.isEnabled(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO));
+        Assert.assertTrue(logger.isEnabled(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.WARN));
+        logger.enableReason(ChmLogger.LogReason.DEPENDENCY, false);
+        Assert.assertFalse(logger.isEnabled(ChmLogger.LogReason.DEPENDENCY));
+        Assert.assertTrue(logger.isEnabled(ChmLogger.LogReason.MATCHES));
+    }
+
+    @Test
+    public void testSupplierNotCalledWhenDisabled() {
+        ChmLogger logger = new ChmLogger(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        AtomicInteger calls = new AtomicInteger();
+        logger.log(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.ERROR, () -> "message " + calls.incrementAndGet());
+        logger.enableReason(ChmLogger.LogReason.DEPENDENCY, true);
+        logger.log(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO, () -> "message " + calls.incrementAndGet());
+        Assert.assertEquals(0, calls.get());
+    }
+
+    /**
+     * Compares bytes allocated by disabled log calls, when message is built eagerly,
+     * and when it is built by a supplier.
+     */
+    @Test
+    public void testDisabledLoggingAllocation() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        ChmLogger logger = new ChmLogger(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        String classpath = "/home/user/.m2/repository/top/marchand/xml/some-artifact/1.0.0/some-artifact-1.0.0.jar";
+        long threadId = Thread.currentThread().getId();
+
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            logger.log(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO, "\t comparing to classpath " + classpath + i);
+        }
+        long eager = threads.getThreadAllocatedBytes(threadId) - start;
+
+        start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            final int n = i;
+            logger.log(ChmLogger.LogReason.DEPENDENCY, ChmLogger.LogLevel.INFO, () -> "\t comparing to classpath " + classpath + n);
+        }
+        long lazy = threads.getThreadAllocatedBytes(threadId) - start;
+
+        // eager messages are ~ 200 bytes each, only the lambda may remain in lazy mode
+        Assert.assertTrue("eager=" + eager + " lazy=" + lazy, lazy * 5 < eager);
+    }
+}
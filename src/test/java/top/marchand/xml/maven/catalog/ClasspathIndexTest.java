@@ -0,0 +1,52 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+public class ClasspathIndexTest {
+
+    private static String path(String... segments) {
+        return String.join(File.separator, segments);
+    }
+
+    private static final List<String> CLASSPATH = Arrays.asList(
+            path("", "repo", "org", "acme", "lib", "1.0.1", "lib-1.0.1.jar"),
+            path("", "repo", "org", "acme", "lib", "1.0", "lib-1.0.jar"),
+            path("", "repo", "xorg", "acme", "lib", "1.0", "lib-1.0.jar"),
+            path("", "work", "module", "target", "classes"),
+            path("", "repo", "com", "other", "tool", "2.0", "tool-2.0.jar")
+    );
+
+    @Test
+    public void testSameAsLinearScan() {
+        ClasspathIndex index = new ClasspathIndex(CLASSPATH);
+        for (String artifactPath : Arrays.asList(
+                path("org", "acme", "lib", "1.0"),
+                path("org", "acme", "lib", "1.0.1"),
+                path("com", "other", "tool", "2.0"),
+                path("com", "other", "missing", "2.0"),
+                path("lib", "1.0"),
+                "1.0")) {
+            int first = -1, last = -1;
+            for (int i = 0; i < CLASSPATH.size(); i++) {
+                if (CLASSPATH.get(i).contains(artifactPath)) {
+                    if (first < 0) first = i;
+                    last = i;
+                }
+            }
+            Assert.assertEquals(artifactPath, first, index.firstContaining(artifactPath));
+            Assert.assertEquals(artifactPath, last, index.lastContaining(artifactPath));
+        }
+    }
+
+    @Test
+    public void testProjectOutputs() {
+        ClasspathIndex index = new ClasspathIndex(CLASSPATH);
+        Assert.assertArrayEquals(new int[]{3}, index.getProjectOutputs());
+        Assert.assertEquals(CLASSPATH.get(3), index.get(3));
+    }
+}
@@ -0,0 +1,60 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DependencyAncestryTest {
+    private static final String[] CLASSIFIERS = {"jar-with-dependencies", "jar-with-dependencies-and-model"};
+
+    private static DependencyNode node(DependencyNode parent, String artifactId, String classifier) {
+        return new DefaultDependencyNode(
+                parent,
+                new DefaultArtifact("top.marchand", artifactId, "1.0", "compile", "jar", classifier, new DefaultArtifactHandler("jar")),
+                null, null, null);
+    }
+
+    @Test
+    public void testJarWithDependencies() throws Exception {
+        DependencyNode root = node(null, "root", null);
+        DependencyNode tests = node(root, "tests", "tests");
+        DependencyNode jwd = node(tests, "jwd", "jar-with-dependencies");
+        DependencyNode child = node(jwd, "child", null);
+        DependencyNode other = node(root, "other", null);
+        DependencyAncestry ancestry = new DependencyAncestry(CLASSIFIERS,
+                dn -> "tests".equals(dn.getArtifact().getArtifactId()) || "root".equals(dn.getArtifact().getArtifactId()) ?
+                        null :
+                        dn.getArtifact().getArtifactId() + ".jar");
+        Assert.assertFalse(ancestry.isInJarWithDependencies(root));
+        Assert.assertFalse(ancestry.isInJarWithDependencies(other));
+        Assert.assertTrue(ancestry.isInJarWithDependencies(child));
+        Assert.assertSame(jwd, ancestry.getJarWithDependencies(child));
+        // the farthest ancestor that resolves wins
+        Assert.assertEquals("jwd.jar", ancestry.getJarFile(child));
+        Assert.assertEquals("other.jar", ancestry.getJarFile(other));
+    }
+
+    @Test
+    public void testDeepGraphIsResolvedOnce() throws Exception {
+        DependencyNode node = node(null, "root", "jar-with-dependencies");
+        DependencyNode first = node;
+        for (int i = 0; i < 100000; i++) {
+            node = node(node, "a" + i, null);
+        }
+        final AtomicInteger resolutions = new AtomicInteger();
+        DependencyAncestry ancestry = new DependencyAncestry(CLASSIFIERS, dn -> {
+            resolutions.incrementAndGet();
+            return dn.getArtifact().getArtifactId() + ".jar";
+        });
+        Assert.assertTrue(ancestry.isInJarWithDependencies(node));
+        Assert.assertSame(first, ancestry.getJarWithDependencies(node));
+        Assert.assertEquals("root.jar", ancestry.getJarFile(node));
+        Assert.assertEquals("root.jar", ancestry.getJarFile(node.getParent()));
+        Assert.assertEquals(1, resolutions.get());
+    }
+}
@@ -0,0 +1,72 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class ExecutionMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRendering() {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        metrics.increment(ExecutionMetrics.Counter.NODES_VISITED);
+        metrics.add(ExecutionMetrics.Counter.ENTRIES_WRITTEN, 4);
+        String summary = metrics.toSummary();
+        Assert.assertTrue(summary, summary.startsWith("classpath=0ms "));
+        Assert.assertTrue(summary, summary.contains(" nodesVisited=1 "));
+        Assert.assertTrue(summary, summary.endsWith(" entriesWritten=4"));
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("catalogFile", "C:\\work\\\"catalog\".xml");
+        properties.put("upToDate", false);
+        String json = metrics.toJson(properties);
+        Assert.assertTrue(json, json.startsWith("{\n  \"catalogFile\": \"C:\\\\work\\\\\\\"catalog\\\".xml\",\n  \"upToDate\": false,\n"));
+        Assert.assertTrue(json, json.contains("\"writeOxygenCatalog\": 0\n  },"));
+        Assert.assertTrue(json, json.contains("\"nodesVisited\": 1,"));
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        File basedir = folder.newFolder("project");
+        File repository = folder.newFolder("repository");
+        Artifact projectArtifact = artifact("top.marchand.test", "project", "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.1", null);
+        DependencyNode root = node(null, projectArtifact);
+        node(root, lib);
+        node(root, artifact("org.acme", "missing", "1.0", null));
+        Catalog catalog = catalog(project(basedir, projectArtifact,
+                Collections.singletonList(repositoryPath(repository, lib))), root);
+        catalog.catalogFileName = "catalog.xml";
+        catalog.metricsReport = true;
+        catalog.execute();
+
+        File report = new File(basedir, "target/catalogBuilder/catalog.xml.metrics.json");
+        String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+        for (String expected : Arrays.asList(
+                "\"artifactId\": \"project\",",
+                "\"upToDate\": false,",
+                "\"nodesVisited\": 3,",
+                "\"dependenciesProcessed\": 2,",
+                "\"classpathLookups\": 2,",
+                // 1 artifact found x 2 generates
+                "\"entriesWritten\": 2\n")) {
+            Assert.assertTrue(json, json.contains(expected));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class GraphFilterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPruneExcluded() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        Artifact testLib = new DefaultArtifact("org.acme", "test-lib", "1.0", "test", "jar", null, new DefaultArtifactHandler("jar"));
+        project.dependency(
+                project.dependency(project.root, artifact("org.framework", "core", "5.0", null)),
+                artifact("org.framework", "schemas", "5.0", null));
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null));
+        project.dependency(project.root, testLib);
+        Catalog catalog = project.catalog();
+        catalog.excludes = Arrays.asList("org.framework:core");
+        catalog.execute();
+        String content = read(catalog);
+        Assert.assertFalse(content, content.contains("dependency:/org.framework+core/"));
+        Assert.assertTrue(content, content.contains("dependency:/org.framework+schemas/"));
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+test-lib/"));
+
+        catalog.pruneExcluded = true;
+        catalog.scopes = Arrays.asList("compile", "runtime");
+        catalog.execute();
+        content = read(catalog);
+        Assert.assertFalse(content, content.contains("dependency:/org.framework+"));
+        Assert.assertFalse(content, content.contains("dependency:/org.acme+test-lib/"));
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+lib/"));
+
+        // includes never prune
+        catalog.excludes = null;
+        catalog.includes = Arrays.asList("org.framework:schemas");
+        catalog.scopes = null;
+        catalog.execute();
+        content = read(catalog);
+        Assert.assertTrue(content, content.contains("dependency:/org.framework+schemas/"));
+        Assert.assertFalse(content, content.contains("dependency:/org.acme+lib/"));
+    }
+}
@@ -0,0 +1,86 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarFile;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class JarInspectorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testInspection() throws Exception {
+        String xsl = jar(folder.newFile("xsl.jar"), "META-INF/MANIFEST.MF", "A.class", "xsl/main.xsl").getAbsolutePath();
+        String code = jar(folder.newFile("code.jar"), "META-INF/MANIFEST.MF", "A.class").getAbsolutePath();
+        File cache = folder.newFolder("cache");
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        JarInspector inspector = new JarInspector(new ResourceGlobs(null), cache, metrics);
+        inspector.load();
+        inspector.inspectAll(Arrays.asList(xsl, code, folder.getRoot().getAbsolutePath()), 4);
+        Assert.assertTrue(inspector.hasResources(xsl));
+        Assert.assertFalse(inspector.hasResources(code));
+        Assert.assertTrue(inspector.hasResources(new File(folder.getRoot(), "missing.jar").getAbsolutePath()));
+        inspector.store();
+        Assert.assertEquals(2, metrics.get(ExecutionMetrics.Counter.JARS_INSPECTED));
+
+        // next build : from cache
+        metrics = new ExecutionMetrics();
+        inspector = new JarInspector(new ResourceGlobs(null), cache, metrics);
+        inspector.load();
+        inspector.inspectAll(Arrays.asList(xsl, code), 4);
+        Assert.assertTrue(inspector.hasResources(xsl));
+        Assert.assertFalse(inspector.hasResources(code));
+        inspector.store();
+        Assert.assertEquals(0, metrics.get(ExecutionMetrics.Counter.JARS_INSPECTED));
+
+        // jar changed : inspected again
+        jar(new File(code), "META-INF/MANIFEST.MF", "A.class", "schema.xsd");
+        new File(code).setLastModified(System.currentTimeMillis() + 10000);
+        inspector = new JarInspector(new ResourceGlobs(null), cache, metrics);
+        inspector.load();
+        Assert.assertTrue(inspector.hasResources(code));
+
+        // other globs : other cache
+        inspector = new JarInspector(new ResourceGlobs(Arrays.asList("**/*.xsd")), cache, metrics);
+        inspector.load();
+        Assert.assertFalse(inspector.hasResources(xsl));
+    }
+
+    @Test
+    public void testMavenBuiltJar() throws Exception {
+        // maven-plugin-api only carries classes, and the pom.xml of every Maven-built jar
+        String jar = new File(AbstractMojo.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Assert.assertTrue(jarFile.stream().anyMatch(e -> e.getName().startsWith("META-INF/maven/") && e.getName().endsWith("/pom.xml")));
+        }
+        JarInspector inspector = new JarInspector(new ResourceGlobs(null), null, new ExecutionMetrics());
+        inspector.inspectAll(Collections.singletonList(jar), 1);
+        Assert.assertFalse(inspector.hasResources(jar));
+        inspector = new JarInspector(new ResourceGlobs(Arrays.asList("**/*.xml")), null, new ExecutionMetrics());
+        inspector.inspectAll(Collections.singletonList(jar), 1);
+        Assert.assertFalse(inspector.hasResources(jar));
+    }
+
+    @Test
+    public void testCatalogSkipsJarsWithoutResources() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null), "xsl/main.xsl");
+        project.dependency(project.root, artifact("org.acme", "code", "1.0", null), "A.class");
+        Catalog catalog = project.catalog();
+        catalog.skipJarsWithoutResources = true;
+        catalog.execute();
+        String content = read(catalog);
+        Assert.assertTrue(content, content.contains("dependency:/org.acme+lib/"));
+        Assert.assertFalse(content, content.contains("dependency:/org.acme+code/"));
+    }
+}
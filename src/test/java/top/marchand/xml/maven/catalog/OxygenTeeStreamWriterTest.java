@@ -0,0 +1,45 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringWriter;
+
+public class OxygenTeeStreamWriterTest {
+
+    @Test
+    public void testToOxygen() {
+        Assert.assertEquals("zip:file:/repo/a.jar!/", OxygenTeeStreamWriter.toOxygen("jar:file:/repo/a.jar!/"));
+        Assert.assertEquals("file:/work/target/classes/", OxygenTeeStreamWriter.toOxygen("file:/work/target/classes/"));
+        Assert.assertEquals("cp:/", OxygenTeeStreamWriter.toOxygen("cp:/"));
+        Assert.assertEquals("x-jar:file:/a.jar", OxygenTeeStreamWriter.toOxygen("x-jar:file:/a.jar"));
+    }
+
+    @Test
+    public void testWritesBothCatalogs() throws Exception {
+        XMLOutputFactory fact = XMLOutputFactory.newFactory();
+        StringWriter standard = new StringWriter();
+        StringWriter oxygen = new StringWriter();
+        XMLStreamWriter writer = new OxygenTeeStreamWriter(
+                fact.createXMLStreamWriter(standard),
+                fact.createXMLStreamWriter(oxygen));
+        writer.writeStartDocument();
+        writer.writeDTD("<!DOCTYPE catalog>");
+        writer.writeStartElement("catalog");
+        writer.writeEmptyElement("rewriteURI");
+        writer.writeAttribute("uriStartString", "dependency:/g+a/");
+        writer.writeAttribute("rewritePrefix", "jar:file:/repo/a.jar!/");
+        writer.writeCharacters("jar:file:");
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        Assert.assertEquals(
+                "<?xml version=\"1.0\" ?><!DOCTYPE catalog><catalog><rewriteURI uriStartString=\"dependency:/g+a/\" rewritePrefix=\"jar:file:/repo/a.jar!/\"/>jar:file:</catalog>",
+                standard.toString());
+        Assert.assertEquals(
+                "<?xml version=\"1.0\" ?><catalog><rewriteURI uriStartString=\"dependency:/g+a/\" rewritePrefix=\"zip:file:/repo/a.jar!/\"/>jar:file:</catalog>",
+                oxygen.toString());
+    }
+}
@@ -0,0 +1,97 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class PomReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PomReader reader;
+    private ExecutionMetrics metrics;
+
+    @Before
+    public void before() throws Exception {
+        PomReader.clearCache();
+        metrics = new ExecutionMetrics();
+        reader = new PomReader(metrics);
+    }
+
+    private File write(String name, String content) throws Exception {
+        File file = new File(folder.getRoot(), name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        File pom = write("module/pom.xml",
+                "<project xmlns='http://maven.apache.org/POM/4.0.0'>"
+                + "<parent><groupId>top.marchand</groupId><artifactId>parent</artifactId><version>1.0</version>"
+                + "<relativePath>../parent</relativePath></parent>"
+                + "<artifactId>module</artifactId>"
+                + "<dependencies><dependency><groupId>g</groupId><artifactId>a</artifactId><version>2.0</version></dependency></dependencies>"
+                + "</project>");
+        PomReader.PomCoordinates coordinates = reader.read(pom);
+        Assert.assertNull(coordinates.getGroupId());
+        Assert.assertEquals("module", coordinates.getArtifactId());
+        Assert.assertNull(coordinates.getVersion());
+        Assert.assertEquals("../parent", coordinates.getParentRelativePath());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        File pom = write("pom.xml",
+                "<project xmlns='http://maven.apache.org/POM/4.0.0'>"
+                + "<groupId>top.marchand</groupId><artifactId>module</artifactId><version>1.0</version>"
+                + "</project>");
+        PomReader.PomCoordinates first = reader.read(pom);
+        Assert.assertSame(first, reader.read(new File(folder.getRoot(), "./pom.xml")));
+        write("pom.xml",
+                "<project xmlns='http://maven.apache.org/POM/4.0.0'>"
+                + "<groupId>top.marchand</groupId><artifactId>module</artifactId><version>1.1</version>"
+                + "</project>");
+        pom.setLastModified(pom.lastModified() + 2000);
+        Assert.assertEquals("1.1", reader.read(pom).getVersion());
+        Assert.assertEquals(2, metrics.get(ExecutionMetrics.Counter.POMS_PARSED));
+        Assert.assertEquals(1, metrics.get(ExecutionMetrics.Counter.POM_CACHE_HITS));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        String content = "<project xmlns='http://maven.apache.org/POM/4.0.0'>"
+                + "<groupId>top.marchand</groupId><artifactId>module</artifactId><version>1.0</version>"
+                + "</project>";
+        File first = write("0/pom.xml", content);
+        reader.read(first);
+        for (int i = 1; i <= PomReader.CACHE_SIZE; i++) {
+            reader.read(write(i + "/pom.xml", content));
+        }
+        Assert.assertEquals(PomReader.CACHE_SIZE + 1, metrics.get(ExecutionMetrics.Counter.POMS_PARSED));
+        // least recently used has been dropped
+        reader.read(first);
+        Assert.assertEquals(PomReader.CACHE_SIZE + 2, metrics.get(ExecutionMetrics.Counter.POMS_PARSED));
+    }
+
+    @Test
+    public void testStopsOnceCoordinatesAreFound() throws Exception {
+        // what follows coordinates is never read, even if not well-formed
+        File pom = write("pom.xml",
+                "<project xmlns='http://maven.apache.org/POM/4.0.0'>"
+                + "<groupId>top.marchand</groupId><artifactId>module</artifactId><version>1.0</version>"
+                + "<dependencyManagement><dependencies></dependencyManagement>");
+        PomReader.PomCoordinates coordinates = reader.read(pom);
+        Assert.assertEquals("top.marchand", coordinates.getGroupId());
+        Assert.assertEquals("module", coordinates.getArtifactId());
+        Assert.assertEquals("1.0", coordinates.getVersion());
+    }
+}
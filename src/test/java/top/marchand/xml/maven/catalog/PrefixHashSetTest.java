@@ -0,0 +1,38 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefixHashSetTest {
+
+    @Test
+    public void testAdd() {
+        PrefixHashSet set = new PrefixHashSet();
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(set.add("dependency:/org.acme+lib" + i + "/"));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertFalse(set.add(new StringBuilder("dependency:/org.acme+lib").append(i).append('/')));
+        }
+        Assert.assertEquals(10000, set.size());
+        Assert.assertTrue(set.add(""));
+        Assert.assertFalse(set.add(""));
+    }
+
+    @Test
+    public void testPolynomialCollisions() {
+        // same String.hashCode(), and same 31-polynomial hash whatever the seed
+        Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+        Assert.assertEquals("lib-aq".hashCode(), "lib-c3".hashCode());
+        PrefixHashSet set = new PrefixHashSet();
+        Assert.assertTrue(set.add("Aa"));
+        Assert.assertTrue(set.add("BB"));
+        Assert.assertTrue(set.add("dependency:/org.acme+lib-aq/"));
+        Assert.assertTrue(set.add("dependency:/org.acme+lib-c3/"));
+        Assert.assertTrue(set.add("dependency:/org.acme+AaAa/"));
+        Assert.assertTrue(set.add("dependency:/org.acme+BBBB/"));
+        Assert.assertTrue(set.add("dependency:/org.acme+AaBB/"));
+        Assert.assertTrue(set.add("dependency:/org.acme+BBAa/"));
+        Assert.assertEquals(8, set.size());
+    }
+}
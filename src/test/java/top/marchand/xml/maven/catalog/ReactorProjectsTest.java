@@ -0,0 +1,34 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+
+public class ReactorProjectsTest {
+
+    private static MavenProject project(String dir, String groupId, String artifactId, String version) {
+        MavenProject project = new MavenProject();
+        project.setFile(new File(new File(dir), "pom.xml"));
+        project.setGroupId(groupId);
+        project.setArtifactId(artifactId);
+        project.setVersion(version);
+        return project;
+    }
+
+    @Test
+    public void testIndex() {
+        Map<File, MyArtifact> index = ReactorProjects.index(Arrays.asList(
+                project("/work/reactor", "top.marchand", "reactor", "1.0"),
+                project("/work/reactor/module", "top.marchand", "module", "1.0")));
+        MyArtifact module = index.get(new File("/work/reactor/module").getAbsoluteFile());
+        Assert.assertEquals("top.marchand", module.getGroupId());
+        Assert.assertEquals("module", module.getArtifactId());
+        Assert.assertEquals("1.0", module.getVersion());
+        Assert.assertNull(index.get(new File("/work/other").getAbsoluteFile()));
+        Assert.assertTrue(ReactorProjects.of(null).isEmpty());
+    }
+}
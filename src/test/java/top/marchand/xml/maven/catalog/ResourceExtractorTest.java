@@ -0,0 +1,103 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class ResourceExtractorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalExtraction() throws Exception {
+        File jar = jar(folder.newFile("lib.jar"), "META-INF/MANIFEST.MF", "xsl/main.xsl", "xsd/a.xsd", "A.class");
+        File base = new File(folder.getRoot(), "catalog-resources");
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        File dir = new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(new File(base, "org.acme/lib/1.0/lib-1.0.jar"), dir);
+        Assert.assertEquals("xsl/main.xsl", new String(Files.readAllBytes(new File(dir, "xsl/main.xsl").toPath()), StandardCharsets.UTF_8));
+        Assert.assertTrue(new File(dir, "xsd/a.xsd").isFile());
+        Assert.assertFalse(new File(dir, "A.class").exists());
+        Assert.assertFalse(new File(dir, "META-INF").exists());
+        Assert.assertEquals(2, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+
+        // same content : nothing is extracted
+        metrics = new ExecutionMetrics();
+        new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(0, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+
+        // same size and modification time : content is not even read
+        long lastModified = jar.lastModified();
+        jar(jar, "META-INF/MANIFEST.MF", "xsl/main.xsl", "xsd/b.xsd", "A.class");
+        jar.setLastModified(lastModified);
+        metrics = new ExecutionMetrics();
+        new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(0, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+        Assert.assertFalse(new File(dir, "xsd/b.xsd").exists());
+
+        // modification time changed : content is hashed, and has changed
+        jar.setLastModified(lastModified + 2000);
+        metrics = new ExecutionMetrics();
+        new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(2, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+        Assert.assertTrue(new File(dir, "xsd/b.xsd").isFile());
+
+        // touched, same content : not extracted again
+        jar.setLastModified(lastModified + 4000);
+        metrics = new ExecutionMetrics();
+        new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(0, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+
+        // content changed : stale resources are removed
+        jar(jar, "xsl/other.xsl");
+        metrics = new ExecutionMetrics();
+        new ResourceExtractor(base, new ResourceGlobs(null), metrics).extract(jar, "org.acme", "lib", "1.0", null, "jar");
+        Assert.assertEquals(1, metrics.get(ExecutionMetrics.Counter.RESOURCES_EXTRACTED));
+        Assert.assertTrue(new File(dir, "xsl/other.xsl").isFile());
+        Assert.assertFalse(new File(dir, "xsl/main.xsl").exists());
+    }
+
+    @Test
+    public void testClassifiersDoNotShareDirectory() throws Exception {
+        File base = new File(folder.getRoot(), "catalog-resources");
+        ResourceExtractor extractor = new ResourceExtractor(base, new ResourceGlobs(null), new ExecutionMetrics());
+        File main = extractor.extract(jar(folder.newFile("lib.jar"), "xsl/main.xsl"), "org.acme", "lib", "1.0", null, "jar");
+        File tests = extractor.extract(jar(folder.newFile("lib-tests.jar"), "xsl/test.xsl"), "org.acme", "lib", "1.0", "tests", "jar");
+        File testJar = extractor.extract(jar(folder.newFile("lib-test-jar.jar"), "xsl/t.xsl"), "org.acme", "lib", "1.0", null, "test-jar");
+        Assert.assertEquals(new File(base, "org.acme/lib/1.0/lib-1.0-tests.jar"), tests);
+        Assert.assertEquals(new File(base, "org.acme/lib/1.0/lib-1.0.test-jar"), testJar);
+        Assert.assertTrue(new File(main, "xsl/main.xsl").isFile());
+        Assert.assertFalse(new File(main, "xsl/test.xsl").exists());
+        Assert.assertTrue(new File(tests, "xsl/test.xsl").isFile());
+        Assert.assertTrue(new File(testJar, "xsl/t.xsl").isFile());
+    }
+
+    @Test(expected = IOException.class)
+    public void testEntryOutsideOfJar() throws Exception {
+        File jar = jar(folder.newFile("evil.jar"), "../../evil.xsl");
+        new ResourceExtractor(folder.newFolder(), new ResourceGlobs(null), new ExecutionMetrics()).extract(jar, "org.acme", "evil", "1.0", null, "jar");
+    }
+
+    @Test
+    public void testCatalogPointsToExtractedResources() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null), "xsl/main.xsl", "A.class");
+        Catalog catalog = project.catalog();
+        catalog.extractResources = true;
+        catalog.execute();
+        File dir = new File(project.basedir, "target/catalog-resources/org.acme/lib/2.0/lib-2.0.jar");
+        Assert.assertTrue(new File(dir, "xsl/main.xsl").isFile());
+        String content = read(catalog);
+        Assert.assertTrue(content, content.contains("rewritePrefix=\"" + dir.toURI() + "\""));
+        Assert.assertFalse(content, content.contains("jar:file:"));
+    }
+}
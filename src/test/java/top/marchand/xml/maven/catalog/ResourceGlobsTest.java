@@ -0,0 +1,34 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ResourceGlobsTest {
+
+    @Test
+    public void testGlobs() {
+        ResourceGlobs globs = new ResourceGlobs(Arrays.asList("**/*.xsl", "schemas/**", "a?c.txt"));
+        Assert.assertTrue(globs.matches("main.xsl"));
+        Assert.assertTrue(globs.matches("xsl/lib/main.xsl"));
+        Assert.assertFalse(globs.matches("main.xslt"));
+        Assert.assertTrue(globs.matches("schemas/a/b.xsd"));
+        Assert.assertFalse(globs.matches("lib/schemas/b.xsd"));
+        Assert.assertTrue(globs.matches("abc.txt"));
+        Assert.assertFalse(globs.matches("a/c.txt"));
+        Assert.assertFalse(globs.matches("Main.class"));
+        Assert.assertFalse(new ResourceGlobs(Arrays.asList("**/*.xml")).matches("META-INF/maven/org.acme/lib/pom.xml"));
+        Assert.assertTrue(new ResourceGlobs(Arrays.asList("**/*.xml")).matches("META-INF/catalog.xml"));
+    }
+
+    @Test
+    public void testDefaults() {
+        ResourceGlobs globs = new ResourceGlobs(null);
+        Assert.assertEquals(ResourceGlobs.DEFAULTS, globs.getGlobs());
+        Assert.assertTrue(globs.matches("org/acme/schema.xsd"));
+        Assert.assertFalse(globs.matches("org/acme/Schema.class"));
+        Assert.assertFalse(globs.matches("META-INF/maven/org.acme/lib/pom.xml"));
+        Assert.assertFalse(globs.matches("META-INF/plexus/components.xml"));
+    }
+}
@@ -0,0 +1,45 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class ResourceListerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testList() throws Exception {
+        File jar = jar(folder.newFile("lib.jar"), "xsl/main.xsl", "A.class", "xsd/a.xsd");
+        File classes = folder.newFolder("classes");
+        new File(classes, "xsl").mkdirs();
+        Files.write(new File(classes, "xsl/b.xsl").toPath(), new byte[0]);
+        Files.write(new File(classes, "B.class").toPath(), new byte[0]);
+        File cache = folder.newFolder("cache");
+
+        ResourceLister lister = new ResourceLister(new ResourceGlobs(null), cache);
+        Assert.assertEquals(Arrays.asList("xsd/a.xsd", "xsl/main.xsl"), lister.list(jar));
+        Assert.assertEquals(Arrays.asList("xsl/b.xsl"), lister.list(classes));
+        Assert.assertEquals(Collections.emptyList(), lister.list(new File(folder.getRoot(), "missing.jar")));
+        Assert.assertEquals(2, lister.getListedCount());
+
+        // jar listing comes from cache
+        lister = new ResourceLister(new ResourceGlobs(null), cache);
+        Assert.assertEquals(Arrays.asList("xsd/a.xsd", "xsl/main.xsl"), lister.list(jar));
+        Assert.assertEquals(0, lister.getListedCount());
+
+        jar(jar, "xsl/other.xsl");
+        jar.setLastModified(System.currentTimeMillis() + 10000);
+        Assert.assertEquals(Arrays.asList("xsl/other.xsl"), lister.list(jar));
+        Assert.assertEquals(1, lister.getListedCount());
+    }
+}
@@ -0,0 +1,67 @@
+package top.marchand.xml.maven.catalog;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import top.marchand.xml.maven.catalog.index.ResourceManifest;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+/**
+ * The resource manifest written next to the catalog, with {@code generateManifest}.
+ */
+public class ResourceManifestGenerationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testManifest() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null), "xsl/main.xsl", "A.class");
+        Catalog catalog = project.catalog();
+        catalog.uriPatterns = Arrays.asList("standard", "compact");
+        catalog.generateManifest = true;
+        catalog.execute();
+        ResourceManifest manifest = ResourceManifest.open(new File(project.basedir, "catalog.manifest"));
+        Assert.assertTrue(manifest.mayBeListed("dependency:/org.acme+lib/xsl/main.xsl"));
+        Assert.assertTrue(manifest.mayBeListed("dependency:/lib/xsl/main.xsl"));
+        Assert.assertFalse(manifest.mayBeListed("dependency:/org.acme+lib/A.class"));
+        Assert.assertFalse(manifest.mayBeListed("dependency:/lib/xsl/missing.xsl"));
+    }
+
+    @Test
+    public void testFingerprintCoversClasses() throws Exception {
+        TestProject project = new TestProject(folder.newFolder());
+        project.dependency(project.root, artifact("org.acme", "lib", "2.0", null), "xsl/main.xsl");
+        File classes = new File(project.basedir, "module/target/classes");
+        new File(classes, "xsl").mkdirs();
+        Files.write(new File(project.basedir, "module/pom.xml").toPath(),
+                "<project><groupId>org.acme</groupId><artifactId>module</artifactId><version>1.0</version></project>"
+                        .getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(classes, "xsl/a.xsl").toPath(), "<a/>".getBytes(StandardCharsets.UTF_8));
+        project.output(classes);
+        File fingerprint = new File(project.basedir, "target/catalogBuilder/catalog.xml.fingerprint");
+        Catalog catalog = project.catalog();
+        catalog.incremental = true;
+        catalog.generateManifest = true;
+        catalog.execute();
+        String first = read(fingerprint);
+
+        // not a resource : up to date
+        Files.write(new File(classes, "A.class").toPath(), new byte[] {0});
+        catalog.execute();
+        Assert.assertEquals(first, read(fingerprint));
+
+        // a resource is added : manifest is generated again
+        Files.write(new File(classes, "xsl/b.xsl").toPath(), "<b/>".getBytes(StandardCharsets.UTF_8));
+        catalog.execute();
+        Assert.assertNotEquals(first, read(fingerprint));
+    }
+}
@@ -0,0 +1,160 @@
+package top.marchand.xml.maven.catalog;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static top.marchand.xml.maven.catalog.CatalogFixtures.*;
+
+public class WatchCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 30000)
+    public void testPomChangeIsApplied() throws Exception {
+        File basedir = folder.newFolder();
+        File sibling = module(basedir, "org.acme", "lib", "1.0");
+        Artifact projectArtifact = artifact("top.marchand.test", "project", "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.0", null);
+        DependencyNode root = node(null, projectArtifact);
+        node(root, lib);
+        File projectDir = new File(basedir, "project");
+        WatchCatalog watch = new WatchCatalog();
+        watch.project = project(projectDir, projectArtifact,
+                Arrays.asList(new File(sibling, "target/classes").getAbsolutePath()));
+        watch.removeDoctype = true;
+        watch.catalogFileName = "catalog.xml";
+        watch.watchDebounce = 20;
+        watch.setDependencyGraphBuilder(graphBuilder(root));
+        watch.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        File catalogFile = new File(projectDir, "catalog.xml");
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                watch.execute();
+            } catch (Exception ex) {
+                failure.set(ex);
+            }
+        });
+        thread.start();
+        try {
+            while (!catalogFile.isFile()) {
+                Thread.sleep(10);
+            }
+            // sibling declares 1.0, project depends on 2.0
+            Assert.assertFalse(read(catalogFile).contains("dependency:/org.acme+lib/"));
+            // let the watch service register directories
+            Thread.sleep(500);
+            module(basedir, "org.acme", "lib", "2.0");
+            String content = read(catalogFile);
+            while (!content.contains("dependency:/org.acme+lib/")) {
+                Thread.sleep(10);
+                content = read(catalogFile);
+            }
+            Assert.assertTrue(content, content.contains("rewritePrefix=\"" + new File(sibling, "target/classes").toURI()));
+        } finally {
+            watch.stop();
+            thread.join();
+        }
+        Assert.assertNull(failure.get());
+    }
+
+    /**
+     * The sibling version is a property, that only the project builder interpolates, and the project gets
+     * a new dependency : both are taken into account once poms change.
+     */
+    @Test(timeout = 30000)
+    public void testProjectIsBuiltAgain() throws Exception {
+        File basedir = folder.newFolder();
+        File sibling = module(basedir, "org.acme", "lib", "${revision}");
+        File repository = new File(basedir, "repository");
+        Artifact projectArtifact = artifact("top.marchand.test", "project", "1.0", null);
+        Artifact lib = artifact("org.acme", "lib", "2.0", null);
+        Artifact other = artifact("org.acme", "other", "1.0", null);
+        jar(new File(repositoryPath(repository, other)), "xsl/other.xsl");
+        File projectDir = new File(basedir, "project");
+        projectDir.mkdirs();
+        Files.write(new File(projectDir, "pom.xml").toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+        String classes = new File(sibling, "target/classes").getAbsolutePath();
+        MavenProject initial = project(projectDir, projectArtifact, Arrays.asList(classes));
+        MavenProject rebuilt = project(projectDir, projectArtifact, Arrays.asList(classes, repositoryPath(repository, other)));
+        DependencyNode initialRoot = node(null, projectArtifact);
+        node(initialRoot, lib);
+        DependencyNode rebuiltRoot = node(null, projectArtifact);
+        node(rebuiltRoot, lib);
+        node(rebuiltRoot, other);
+        WatchCatalog watch = new WatchCatalog() {
+            @Override
+            MavenProject buildProject(File pom, boolean resolveDependencies) {
+                if (pom.getParentFile().equals(sibling)) {
+                    return project(sibling, artifact("org.acme", "lib", "2.0", null), Arrays.<String>asList());
+                }
+                return resolveDependencies ? rebuilt : null;
+            }
+        };
+        watch.project = initial;
+        watch.removeDoctype = true;
+        watch.catalogFileName = "catalog.xml";
+        watch.watchDebounce = 20;
+        watch.setDependencyGraphBuilder(new DependencyGraphBuilder() {
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter) {
+                return project == rebuilt ? rebuiltRoot : initialRoot;
+            }
+
+            @Override
+            public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter, Collection<MavenProject> reactorProjects) {
+                return buildDependencyGraph(project, filter);
+            }
+        });
+        watch.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_WARN, "catalog")));
+        File catalogFile = new File(projectDir, "catalog.xml");
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                watch.execute();
+            } catch (Exception ex) {
+                failure.set(ex);
+            }
+        });
+        thread.start();
+        try {
+            while (!catalogFile.isFile()) {
+                Thread.sleep(10);
+            }
+            // ${revision} is not interpolated when the pom is read
+            Assert.assertFalse(read(catalogFile).contains("dependency:/org.acme+lib/"));
+            Thread.sleep(500);
+            module(basedir, "org.acme", "lib", "${revision}");
+            Files.write(new File(projectDir, "pom.xml").toPath(), "<project></project>".getBytes(StandardCharsets.UTF_8));
+            String content = read(catalogFile);
+            while (!content.contains("dependency:/org.acme+other/")) {
+                Thread.sleep(10);
+                content = read(catalogFile);
+            }
+            Assert.assertTrue(content, content.contains("rewritePrefix=\"" + new File(classes).toURI()));
+            Assert.assertTrue(content, content.contains("dependency:/org.acme+lib/"));
+        } finally {
+            watch.stop();
+            thread.join();
+        }
+        Assert.assertNull(failure.get());
+    }
+}
@@ -0,0 +1,68 @@
+package top.marchand.xml.maven.catalog.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CatalogIndexTest {
+
+    private static CatalogIndex index(CatalogIndexWriter writer) throws IOException {
+        return CatalogIndex.wrap(ByteBuffer.wrap(writer.toByteArray()));
+    }
+
+    @Test
+    public void testLongestPrefix() throws Exception {
+        CatalogIndex index = index(new CatalogIndexWriter()
+                .add(EntryType.REWRITE_URI, "dependency:/a+b/", "jar:file:/b.jar!/")
+                .add(EntryType.REWRITE_URI, "dependency:/a+bc/", "jar:file:/bc.jar!/")
+                .add(EntryType.REWRITE_URI, "dependency:/a+b/sub/", "file:/sub/")
+                .add(EntryType.REWRITE_URI, "dependency:/", "file:/any/")
+                .add(EntryType.REWRITE_SYSTEM, "dependency:/a+b/", "jar:file:/b.jar!/")
+                .add(EntryType.URI, "dependency:/a+b/main.xsl", "file:/main.xsl"));
+        Assert.assertEquals(4, index.size(EntryType.REWRITE_URI));
+        Assert.assertEquals("jar:file:/b.jar!/x.xsl", index.resolveURI("dependency:/a+b/x.xsl"));
+        Assert.assertEquals("file:/sub/x.xsl", index.resolveURI("dependency:/a+b/sub/x.xsl"));
+        Assert.assertEquals("jar:file:/bc.jar!/x.xsl", index.resolveURI("dependency:/a+bc/x.xsl"));
+        Assert.assertEquals("file:/any/a+bd/x.xsl", index.resolveURI("dependency:/a+bd/x.xsl"));
+        Assert.assertEquals("file:/main.xsl", index.resolveURI("dependency:/a+b/main.xsl"));
+        Assert.assertEquals("jar:file:/b.jar!/x.dtd", index.resolveSystem("dependency:/a+b/x.dtd"));
+        Assert.assertNull(index.resolveSystem("dependency:/a+c/x.dtd"));
+        Assert.assertNull(index.resolveURI("http://www.acme.org/"));
+        Assert.assertNull(index.resolvePublic("-//ACME//DTD Doc//EN"));
+    }
+
+    @Test
+    public void testDelegatesAndNextCatalogs() throws Exception {
+        CatalogIndex index = index(new CatalogIndexWriter()
+                .add(EntryType.NEXT_CATALOG, "", "second.xml")
+                .add(EntryType.DELEGATE_URI, "dependency:/org.acme+", "acme.xml")
+                .add(EntryType.DELEGATE_URI, "dependency:/org.acme+lib/", "lib.xml")
+                .add(EntryType.DELEGATE_URI, "dependency:/org.acme+", "acme2.xml")
+                .add(EntryType.NEXT_CATALOG, "", "first.xml"));
+        Assert.assertEquals(Arrays.asList("lib.xml", "acme.xml", "acme2.xml"),
+                index.getDelegates(EntryType.DELEGATE_URI, "dependency:/org.acme+lib/a.xsd"));
+        Assert.assertEquals(Collections.emptyList(), index.getDelegates(EntryType.DELEGATE_URI, "dependency:/org.foo+lib/"));
+        Assert.assertEquals(Arrays.asList("second.xml", "first.xml"), index.getNextCatalogs());
+    }
+
+    @Test
+    public void testStringsAreShared() throws Exception {
+        CatalogIndexWriter writer = new CatalogIndexWriter()
+                .add(EntryType.REWRITE_URI, "dependency:/a+b/", "jar:file:/b.jar!/");
+        int oneEntry = writer.toByteArray().length;
+        writer.add(EntryType.REWRITE_SYSTEM, "dependency:/a+b/", "jar:file:/b.jar!/");
+        // only a record (two string ids) is added
+        Assert.assertEquals(8, writer.toByteArray().length - oneEntry);
+    }
+
+    @Test(expected = IOException.class)
+    public void testVersion() throws Exception {
+        byte[] content = new CatalogIndexWriter().toByteArray();
+        content[5] = 2;
+        CatalogIndex.wrap(ByteBuffer.wrap(content));
+    }
+}
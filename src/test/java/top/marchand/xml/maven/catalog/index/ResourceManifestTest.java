@@ -0,0 +1,51 @@
+package top.marchand.xml.maven.catalog.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ResourceManifestTest {
+
+    @Test
+    public void testMayBeListed() throws Exception {
+        ResourceManifest manifest = ResourceManifest.wrap(ByteBuffer.wrap(new ResourceManifestWriter()
+                .add("dependency:/org.acme+lib/", Arrays.asList("xsl/main.xsl", "xsd/a.xsd"))
+                .add("dependency:/lib/", Arrays.asList("xsl/main.xsl", "xsd/a.xsd"))
+                .add("dependency:/org.acme+empty/", Collections.<String>emptyList())
+                .toByteArray()));
+        Assert.assertEquals(3, manifest.getPrefixesCount());
+        Assert.assertEquals(4, manifest.getResourcesCount());
+        Assert.assertTrue(manifest.mayBeListed("dependency:/org.acme+lib/xsl/main.xsl"));
+        Assert.assertTrue(manifest.mayBeListed(new StringBuilder("dependency:/lib/xsd/a.xsd")));
+        Assert.assertFalse(manifest.mayBeListed("dependency:/org.acme+lib/xsl/missing.xsl"));
+        Assert.assertFalse(manifest.mayBeListed("dependency:/org.acme+empty/xsl/main.xsl"));
+        // not covered : can not be told
+        Assert.assertFalse(manifest.isCovered("dependency:/org.foo+lib/xsl/main.xsl"));
+        Assert.assertTrue(manifest.mayBeListed("dependency:/org.foo+lib/xsl/main.xsl"));
+        Assert.assertFalse(manifest.isCovered("dependency:/"));
+        Assert.assertFalse(manifest.isCovered("dependency:/li"));
+    }
+
+    @Test
+    public void testNestedPrefixes() throws Exception {
+        ResourceManifest manifest = ResourceManifest.wrap(ByteBuffer.wrap(new ResourceManifestWriter()
+                .add("dependency:/org.acme+lib/", Collections.singletonList("xsl/main.xsl"))
+                .add("dependency:/org.acme+lib/xsd/", Collections.singletonList("a.xsd"))
+                .toByteArray()));
+        Assert.assertTrue(manifest.isCovered("dependency:/org.acme+lib/xsd/a.xsd"));
+        Assert.assertTrue(manifest.isCovered("dependency:/org.acme+lib/"));
+        Assert.assertFalse(manifest.isCovered("dependency:/org.acme+li"));
+        Assert.assertTrue(manifest.mayBeListed("dependency:/org.acme+lib/xsd/a.xsd"));
+        Assert.assertTrue(manifest.mayBeListed("dependency:/org.acme+lib/xsl/main.xsl"));
+        Assert.assertFalse(manifest.mayBeListed("dependency:/org.acme+lib/xsd/b.xsd"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMagic() throws Exception {
+        ResourceManifest.wrap(ByteBuffer.wrap(new CatalogIndexWriter().toByteArray()));
+    }
+}
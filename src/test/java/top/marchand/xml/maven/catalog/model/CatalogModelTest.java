@@ -0,0 +1,60 @@
+package top.marchand.xml.maven.catalog.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogModelTest {
+
+    private static RewriteSystemModel entry(String artifactId, String target) {
+        return new RewriteSystemModel("dependency:/g+" + artifactId + "/", target, "g", artifactId, "1.0");
+    }
+
+    private static List<String> targets(CatalogModel catalog) {
+        List<String> ret = new ArrayList<>();
+        for (RewriteSystemModel rsm : catalog.getEntries()) {
+            ret.add(rsm.getRewritePrefix());
+        }
+        return ret;
+    }
+
+    @Test
+    public void testDuplicatesAndOrder() {
+        CatalogModel catalog = new CatalogModel();
+        Assert.assertTrue(catalog.add(entry("b", "b.jar"), 1));
+        Assert.assertTrue(catalog.add(entry("a", "a.jar"), 1));
+        Assert.assertFalse(catalog.add(entry("b", "b.jar"), 3));
+        Assert.assertFalse(catalog.add(entry("b", "other.jar"), 0));
+        Assert.assertEquals(2, catalog.size());
+        Assert.assertTrue(catalog.containsUriStartPrefix("dependency:/g+a/"));
+        Assert.assertEquals("[b.jar, a.jar]", targets(catalog).toString());
+    }
+
+    @Test
+    public void testNearestWins() {
+        CatalogModel catalog = new CatalogModel(CatalogModel.ConflictPolicy.NEAREST_WINS);
+        catalog.add(entry("b", "deep.jar"), 3);
+        catalog.add(entry("a", "a.jar"), 1);
+        Assert.assertFalse(catalog.add(entry("b", "as-deep.jar"), 3));
+        Assert.assertTrue(catalog.add(entry("b", "near.jar"), 1));
+        Assert.assertFalse(catalog.add(entry("b", "deep.jar"), 2));
+        // replaced entry keeps its position
+        Assert.assertEquals("[near.jar, a.jar]", targets(catalog).toString());
+    }
+
+    @Test
+    public void testFail() {
+        CatalogModel catalog = new CatalogModel(CatalogModel.ConflictPolicy.FAIL);
+        catalog.add(entry("b", "b.jar"), 1);
+        Assert.assertFalse(catalog.add(entry("b", "b.jar"), 1));
+        try {
+            catalog.add(entry("b", "other.jar"), 1);
+            Assert.fail("conflict not detected");
+        } catch (CatalogConflictException ex) {
+            Assert.assertEquals("b.jar", ex.getExisting().getRewritePrefix());
+            Assert.assertEquals("other.jar", ex.getConflicting().getRewritePrefix());
+        }
+    }
+}